@@ -0,0 +1,88 @@
+package com.admin.hub.app.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers run on deployer responses: the application map built from the configuration on every registry refresh,
+ * and the combined stdout/stderr of a log fetch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeployerResponseBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Configuration {
+
+        @Param({"10", "100"})
+        public int applications;
+
+        private ConfigurationResponse response;
+
+        @Setup
+        public void setUp() {
+            Map<String, Object> apps = new HashMap<>();
+            for (int i = 0; i < applications; i++) {
+                Map<String, Object> app = new HashMap<>();
+                app.put("git_url", "https://github.com/example/app-" + i + ".git");
+                app.put("branch", "main");
+                app.put("build_type", i % 2 == 0 ? "maven" : "npm");
+                app.put("artifact_path", "target/app-" + i + ".jar");
+                app.put("service_name", "app-" + i + ".service");
+                app.put("deploy_path", "/opt/apps/app-" + i);
+                app.put("symlink", "/opt/apps/app-" + i + "/current");
+                app.put("application_url", "https://app-" + i + ".example.com/actuator/health");
+                apps.put("app-" + i, app);
+            }
+            Map<String, Object> data = new HashMap<>();
+            data.put("applications", apps);
+            response = ConfigurationResponse.builder().success(true).data(data).build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Logs {
+
+        @Param({"1000", "10000"})
+        public int lines;
+
+        private LogsData data;
+
+        @Setup
+        public void setUp() {
+            StringBuilder stdout = new StringBuilder();
+            for (int i = 0; i < lines; i++) {
+                stdout.append("2025-01-01 12:00:").append(i % 60).append(".123  INFO 1234 --- [nio-8080-exec-")
+                        .append(i % 10).append("] c.e.app.Controller : handled request ").append(i).append('\n');
+            }
+            String stderr = "WARNING: An illegal reflective access operation has occurred\n".repeat(Math.max(1, lines / 100));
+            data = LogsData.builder().service("app-0.service").logs(new LogsContent(0, stdout.toString(), stderr)).build();
+        }
+    }
+
+    @Benchmark
+    public Map<String, ApplicationConfiguration> applicationsMap(Configuration configuration) {
+        return configuration.response.getApplicationsMap();
+    }
+
+    @Benchmark
+    public String combinedLogs(Logs logs) {
+        return logs.data.getCombinedLogs();
+    }
+}
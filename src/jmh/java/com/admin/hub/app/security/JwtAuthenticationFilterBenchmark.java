@@ -0,0 +1,77 @@
+package com.admin.hub.app.security;
+
+import com.admin.hub.app.config.AdminCredentialsProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the JWT filter per request: a static asset (filter skipped), an SSE/API request with a token
+ * already in the verified cache, and the bare chain call as baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest assetRequest;
+    private MockHttpServletRequest streamRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmarkSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 1024);
+        jwtUtil.init();
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(
+                new AdminCredentialsProperties("admin@example.com", "secret", "Admin"));
+        userDetailsService.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+
+        assetRequest = new MockHttpServletRequest("GET", "/main-ABCDEFGH.js");
+        streamRequest = new MockHttpServletRequest("GET", "/api/deployment/health/stream");
+        streamRequest.addHeader("Authorization", "Bearer " + jwtUtil.generateTokenForAdmin("admin@example.com", "Admin"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void baseline() throws IOException, ServletException {
+        chain.doFilter(streamRequest, response);
+    }
+
+    @Benchmark
+    public void staticAsset() throws IOException, ServletException {
+        filter.doFilter(assetRequest, response, chain);
+    }
+
+    @Benchmark
+    public void authenticatedStream() throws IOException, ServletException {
+        filter.doFilter(streamRequest, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,70 @@
+package com.admin.hub.app.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation: signing a token at login, validating a token already in the verified cache
+ * (every request after the first) and one that is not (cache disabled, full parse and signature check).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+    private UserDetails admin;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(1024);
+        uncached = jwtUtil(0);
+        token = cached.generateTokenForAdmin("admin@example.com", "Admin");
+        admin = new User("admin@example.com", "", List.of());
+    }
+
+    private static JwtUtil jwtUtil(int verifiedCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateTokenForAdmin("admin@example.com", "Admin");
+    }
+
+    @Benchmark
+    public Boolean validateCached() {
+        return cached.validateToken(token, admin);
+    }
+
+    @Benchmark
+    public Boolean validateUncached() {
+        return uncached.validateToken(token, admin);
+    }
+}
@@ -0,0 +1,150 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.dto.RunningService;
+import com.admin.hub.app.dto.ServerHealthSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsing of the deployer's command output on every health poll with {@link CommandOutputScanner}, against the
+ * split/regex parsing it replaced (legacy*). The GC profile of the run shows the allocation per operation:
+ * mvn -Pbenchmark -Dexec.skip=true test-compile exec:exec@jmh -Djmh.args=ServerOutputParsing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerOutputParsingBenchmark {
+
+    private static final String VMSTAT = """
+            procs -----------memory---------- ---swap-- -----io---- -system-- -------cpu-------
+             r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st gu
+             0  0      0 3720824 124728 2857108    0    0    19    34  434    1  1  0 99  0  0  0
+             1  0      0 3720000 124728 2857108    0    0     0     0  500  800  5  2 92  1  0  0
+            """;
+    private static final String FREE = """
+                           total        used        free      shared  buff/cache   available
+            Mem:           7.8Gi       1.8Gi       3.5Gi       174Mi       2.8Gi       6.0Gi
+            Swap:             0B          0B          0B
+            """;
+    private static final String DF = """
+            Filesystem      Size  Used Avail Use% Mounted on
+            /dev/sda        157G   12G  138G   8% /
+            /dev/sda15      105M  6.1M   99M   6% /boot/efi
+            """;
+    private static final String UPTIME = " 10:14:33 up 12 days,  3:04,  2 users,  load average: 0.08, 0.03, 0.01";
+
+    private String services;
+
+    @Setup
+    public void setUp() {
+        StringBuilder output = new StringBuilder("  UNIT                          LOAD   ACTIVE SUB     DESCRIPTION\n");
+        for (int i = 0; i < 40; i++) {
+            output.append(String.format("  service-%02d.service            loaded active running Description of service %d%n", i, i));
+        }
+        output.append("\nLegend: LOAD   = Reflects whether the unit definition was properly loaded.\n")
+                .append("        ACTIVE = The high-level unit activation state, i.e. generalization of SUB.\n")
+                .append("\n40 loaded units listed.\n");
+        services = output.toString();
+    }
+
+    @Benchmark
+    public List<RunningService> services() {
+        return ServerService.parseServiceOutput(services);
+    }
+
+    @Benchmark
+    public List<RunningService> legacyServices() {
+        List<RunningService> result = new ArrayList<>();
+        boolean inLegend = false;
+        for (String line : services.split("\n")) {
+            if (line.isEmpty() || line.startsWith("UNIT") || line.startsWith("Legend:") || line.startsWith("        ")) {
+                inLegend = true;
+                continue;
+            }
+            if (inLegend && !line.contains("loaded")) {
+                continue;
+            }
+            inLegend = false;
+            String trimmed = line.trim();
+            String[] parts = trimmed.split("\\s+");
+            if (trimmed.contains(".service") && parts.length >= 4) {
+                RunningService service = new RunningService();
+                service.setName(parts[0]);
+                service.setStatus(parts[2] + " " + parts[3]);
+                StringBuilder description = new StringBuilder();
+                for (int i = 4; i < parts.length; i++) {
+                    if (i > 4) description.append(" ");
+                    description.append(parts[i]);
+                }
+                service.setDescription(description.toString());
+                result.add(service);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void health(Blackhole blackhole) {
+        ServerHealthSummary summary = new ServerHealthSummary();
+        blackhole.consume(ServerService.parseCpuUsage(VMSTAT));
+        blackhole.consume(ServerService.parseMemoryUsage(FREE, summary));
+        blackhole.consume(ServerService.parseDiskUsage(DF, summary));
+        ServerService.parseUptime(UPTIME, summary);
+        blackhole.consume(summary);
+    }
+
+    @Benchmark
+    public void legacyHealth(Blackhole blackhole) {
+        ServerHealthSummary summary = new ServerHealthSummary();
+        String[] parts = VMSTAT.split("\n")[3].trim().split("\\s+");
+        blackhole.consume(100 - Double.parseDouble(parts[parts.length - 4]));
+        for (String line : FREE.split("\n")) {
+            if (line.startsWith("Mem:")) {
+                String[] columns = line.trim().split("\\s+");
+                summary.setTotalMemory(columns[1]);
+                summary.setUsedMemory(columns[2]);
+                blackhole.consume(legacySize(columns[2]) / legacySize(columns[1]) * 100);
+            }
+        }
+        for (String line : DF.split("\n")) {
+            if (line.contains("/dev/") && line.trim().endsWith("/")) {
+                String[] columns = line.trim().split("\\s+");
+                summary.setUsedDisk(columns[2]);
+                summary.setTotalDisk(columns[1]);
+                blackhole.consume(Double.parseDouble(columns[4].replace("%", "")));
+            }
+        }
+        Matcher matcher = Pattern.compile("up\\s+(.+?),\\s+\\d+\\s+user").matcher(UPTIME);
+        if (matcher.find()) {
+            summary.setUptime(matcher.group(1).trim());
+        }
+        blackhole.consume(summary);
+    }
+
+    private static double legacySize(String size) {
+        if (size.endsWith("Gi")) {
+            return Double.parseDouble(size.replace("Gi", "")) * 1024 * 1024 * 1024;
+        } else if (size.endsWith("Mi")) {
+            return Double.parseDouble(size.replace("Mi", "")) * 1024 * 1024;
+        }
+        return Double.parseDouble(size.replaceAll("[^\\d.]", ""));
+    }
+}
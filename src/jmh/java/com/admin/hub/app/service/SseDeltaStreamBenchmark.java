@@ -0,0 +1,123 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.dto.RunningService;
+import com.admin.hub.app.service.AppLivenessProbe.ProbeStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of one broadcast tick of each SSE stream (health, appStatus, serverHealth) into its shared frame:
+ * a delta against the previous tick, as sent between keyframes, and a full keyframe.
+ * Every tick changes the timestamp and one value, like a quiet server between polls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseDeltaStreamBenchmark {
+
+    private static final Duration NEVER = Duration.ofDays(365);
+
+    private final Map<String, Object> health = new HashMap<>();
+    private final Map<String, Object> appStatus = new HashMap<>();
+    private final Map<String, Object> serverHealth = new HashMap<>();
+    private SseDeltaStream healthDeltas;
+    private SseDeltaStream appStatusDeltas;
+    private SseDeltaStream serverHealthDeltas;
+    private SseDeltaStream serverHealthKeyframes;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        healthDeltas = new SseDeltaStream(objectMapper, "health", Map.of(), () -> NEVER);
+        appStatusDeltas = new SseDeltaStream(objectMapper, "appStatus", Map.of(), () -> NEVER);
+        serverHealthDeltas = new SseDeltaStream(objectMapper, "serverHealth", Map.of("runningServices", "name"), () -> NEVER);
+        serverHealthKeyframes = new SseDeltaStream(objectMapper, "serverHealth", Map.of("runningServices", "name"), () -> Duration.ZERO);
+
+        health.put("healthy", true);
+        health.put("message", "Deployer service is healthy");
+
+        Map<String, Boolean> appStatuses = new HashMap<>();
+        Map<String, ProbeStatus> probeStatuses = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            appStatuses.put("app-" + i, true);
+            probeStatuses.put("app-" + i, ProbeStatus.UP);
+        }
+        appStatus.put("appStatuses", appStatuses);
+        appStatus.put("appProbeStatuses", probeStatuses);
+
+        List<RunningService> runningServices = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            RunningService service = new RunningService();
+            service.setName("service-" + i + ".service");
+            service.setStatus("active running");
+            service.setDescription("Description of service " + i);
+            runningServices.add(service);
+        }
+        serverHealth.put("memoryUsage", 43.1);
+        serverHealth.put("diskUsage", 61.0);
+        serverHealth.put("loadAverage", 0.42);
+        serverHealth.put("totalMemory", "7.8Gi");
+        serverHealth.put("usedMemory", "3.4Gi");
+        serverHealth.put("uptime", "12 days,  4:31");
+        serverHealth.put("usedDisk", "96G");
+        serverHealth.put("totalDisk", "157G");
+        serverHealth.put("runningServices", runningServices);
+        advance();
+        healthDeltas.next(health);
+        appStatusDeltas.next(appStatus);
+        serverHealthDeltas.next(serverHealth);
+    }
+
+    private void advance() {
+        tick++;
+        health.put("timestamp", tick);
+        appStatus.put("timestamp", tick);
+        serverHealth.put("timestamp", tick);
+        serverHealth.put("cpuUsage", (double) (tick % 100));
+    }
+
+    @Benchmark
+    public int healthDelta() {
+        advance();
+        return healthDeltas.next(health).size();
+    }
+
+    @Benchmark
+    public int appStatusDelta() {
+        advance();
+        return appStatusDeltas.next(appStatus).size();
+    }
+
+    @Benchmark
+    public int serverHealthDelta() {
+        advance();
+        return serverHealthDeltas.next(serverHealth).size();
+    }
+
+    @Benchmark
+    public int serverHealthKeyframe() {
+        advance();
+        return serverHealthKeyframes.next(serverHealth).size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.dto.RunningService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one serverHealth broadcast tick as the number of subscribers grows:
+ * serializing the payload per subscriber (what SseEmitter.send(event().data(map)) does)
+ * against encoding one shared {@link SseFrame} and copying its bytes to every subscriber.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseFanOutBenchmark {
+
+    @Param({"1", "10", "50", "200"})
+    public int subscribers;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> serverHealth;
+    private OutputStream sink;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+
+        List<RunningService> runningServices = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            RunningService service = new RunningService();
+            service.setName("service-" + i + ".service");
+            service.setStatus("running");
+            service.setDescription("Description of service " + i);
+            runningServices.add(service);
+        }
+        serverHealth = new HashMap<>();
+        serverHealth.put("cpuUsage", 12.5);
+        serverHealth.put("memoryUsage", 43.1);
+        serverHealth.put("diskUsage", 61.0);
+        serverHealth.put("loadAverage", 0.42);
+        serverHealth.put("totalMemory", "7.8Gi");
+        serverHealth.put("usedMemory", "3.4Gi");
+        serverHealth.put("uptime", "12 days,  4:31");
+        serverHealth.put("usedDisk", "96G");
+        serverHealth.put("totalDisk", "157G");
+        serverHealth.put("timestamp", System.currentTimeMillis());
+        serverHealth.put("runningServices", runningServices);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpSink(Blackhole blackhole) {
+        sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+                blackhole.consume(len);
+            }
+        };
+    }
+
+    @Benchmark
+    public void serializePerSubscriber() throws IOException {
+        for (int i = 0; i < subscribers; i++) {
+            sink.write("id:1\nevent:serverHealth\ndata:".getBytes(StandardCharsets.UTF_8));
+            objectMapper.writeValue(sink, serverHealth);
+            sink.write("\nretry:1000\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void sharedFrame() throws IOException {
+        SseFrame frame = SseFrame.of(1, "serverHealth", objectMapper.writeValueAsBytes(serverHealth));
+        byte[] bytes = frame.bytes();
+        for (int i = 0; i < subscribers; i++) {
+            sink.write(bytes, 0, bytes.length);
+        }
+    }
+}
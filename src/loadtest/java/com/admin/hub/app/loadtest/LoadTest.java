@@ -0,0 +1,444 @@
+package com.admin.hub.app.loadtest;
+
+import com.admin.hub.app.AdminHubApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test: starts a {@link StubDeployer} and admin-hub against it in this JVM, opens
+ * loadtest.sse-subscribers SSE streams, and has loadtest.workers threads call the REST API in a loop for
+ * loadtest.duration after loadtest.warmup. Prints and writes (target/loadtest-result.json) throughput and latency
+ * percentiles per endpoint, SSE events received, and heap and GC use of the whole JVM (hub, stub and driver).
+ * <p>
+ * Run: mvn -Ploadtest -Dexec.skip=true test-compile exec:exec@loadtest
+ * Options are system properties, passed as JVM arguments through -Dloadtest.args, e.g.
+ * -Dloadtest.args="-Dloadtest.workers=32 -Dloadtest.latency=50ms -Dloadtest.failure-rate=0.05 -Xmx512m";
+ * admin-hub properties can be overridden the same way.
+ */
+public final class LoadTest {
+
+    private static final String ADMIN_EMAIL = "loadtest@example.com";
+    private static final String ADMIN_PASSWORD = "loadtest";
+
+    /**
+     * Load test settings, from loadtest.* system properties
+     */
+    record Options(Duration duration, Duration warmup, int workers, int sseSubscribers, int applications, int services,
+                   int logLines, Duration latency, Duration jitter, double failureRate, double actionRatio,
+                   int stubThreads, Path report) {
+
+        static Options fromSystemProperties() {
+            return new Options(
+                    duration("loadtest.duration", "60s"),
+                    duration("loadtest.warmup", "10s"),
+                    Integer.getInteger("loadtest.workers", 16),
+                    Integer.getInteger("loadtest.sse-subscribers", 50),
+                    Integer.getInteger("loadtest.applications", 20),
+                    Integer.getInteger("loadtest.services", 40),
+                    Integer.getInteger("loadtest.log-lines", 10000),
+                    duration("loadtest.latency", "20ms"),
+                    duration("loadtest.jitter", "10ms"),
+                    Double.parseDouble(System.getProperty("loadtest.failure-rate", "0")),
+                    Double.parseDouble(System.getProperty("loadtest.action-ratio", "0.01")),
+                    Integer.getInteger("loadtest.stub-threads", 200),
+                    Path.of(System.getProperty("loadtest.report", "target/loadtest-result.json")));
+        }
+
+        private static Duration duration(String name, String defaultValue) {
+            String text = System.getProperty(name, defaultValue).trim();
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            if (text.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+            if (text.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+            return Duration.ofMillis(Long.parseLong(text));
+        }
+    }
+
+    /**
+     * One kind of request the workers send, picked at random by weight
+     */
+    private record Endpoint(String name, String method, String pathTemplate, double weight) {
+
+        String path(String application) {
+            return pathTemplate.replace("{app}", application);
+        }
+    }
+
+    private final Options options;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final HttpClient client;
+    private final ExecutorService clientExecutor;
+    private final List<Endpoint> endpoints;
+    private URI hub;
+    private String token;
+
+    private LoadTest(Options options) {
+        this.options = options;
+        this.clientExecutor = Executors.newCachedThreadPool();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        double reads = 1 - options.actionRatio();
+        this.endpoints = List.of(
+                new Endpoint("GET /api/deployment/applications", "GET", "/api/deployment/applications", reads * 0.20),
+                new Endpoint("GET /api/deployment/status/{app}", "GET", "/api/deployment/status/{app}", reads * 0.15),
+                new Endpoint("GET /api/deployment/logs/{app}", "GET", "/api/deployment/logs/{app}?lines=1000", reads * 0.15),
+                new Endpoint("GET /api/deployment/logs/{app}/search", "GET", "/api/deployment/logs/{app}/search?q=ERROR&limit=100", reads * 0.10),
+                new Endpoint("GET /api/server/health/summary", "GET", "/api/server/health/summary", reads * 0.20),
+                new Endpoint("GET /api/server/services/status", "GET", "/api/server/services/status", reads * 0.15),
+                new Endpoint("GET /api/server/health/history", "GET", "/api/server/health/history", reads * 0.05),
+                new Endpoint("POST /api/deployment/restart/{app}", "POST", "/api/deployment/restart/{app}", options.actionRatio()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.fromSystemProperties();
+        // Devtools is on the test classpath, its restarter would start the hub twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (StubDeployer deployer = new StubDeployer(options)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(AdminHubApplication.class)
+                    .properties(hubProperties(deployer.baseUri()))
+                    .run(args);
+            LoadTest loadTest = new LoadTest(options);
+            try {
+                loadTest.hub = URI.create("http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port"));
+                Map<String, Object> report = loadTest.run(deployer);
+                Files.createDirectories(options.report().toAbsolutePath().getParent());
+                Files.write(options.report(), loadTest.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+                System.out.println("Report written to " + options.report().toAbsolutePath());
+            } finally {
+                loadTest.clientExecutor.shutdownNow();
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> hubProperties(URI deployer) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("deployer.base-url", deployer.toString());
+        properties.put("deployer.api-key", "loadtest");
+        properties.put("admin.email", ADMIN_EMAIL);
+        properties.put("admin.password", ADMIN_PASSWORD);
+        properties.put("admin.name", "Load Test");
+        properties.put("jwt.secret", "loadTestSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong");
+        // History stays in memory, the run must not touch data/
+        properties.put("monitoring.history.directory", "");
+        properties.put("logging.level.com.admin.hub", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        return properties;
+    }
+
+    private Map<String, Object> run(StubDeployer deployer) throws Exception {
+        token = login();
+        List<String> applications = applications();
+
+        SseCounter sse = new SseCounter();
+        for (int i = 0; i < options.sseSubscribers(); i++) {
+            String path = i % 2 == 0 ? "/api/deployment/health/stream" : "/api/server/health/stream";
+            client.sendAsync(request("GET", path).timeout(options.warmup().plus(options.duration()).plusMinutes(1)).build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(sse.subscriber()));
+        }
+
+        System.out.printf("Warming up for %ds with %d workers and %d SSE subscribers%n",
+                options.warmup().toSeconds(), options.workers(), options.sseSubscribers());
+        drive(applications, options.warmup(), null);
+        System.gc();
+        resetPeakHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long deployerRequestsBefore = deployer.requests();
+        long sseEventsBefore = sse.events.get();
+
+        System.out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            recorders.put(endpoint.name(), new Recorder());
+        }
+        long started = System.nanoTime();
+        drive(applications, options.duration(), recorders);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long peakHeap = peakHeap();
+        long sseEvents = sse.events.get() - sseEventsBefore;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTimeMillis() - gcTimeBefore;
+        System.gc();
+        long heapAfterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options.toString());
+        report.put("seconds", seconds);
+        Map<String, Object> endpointReports = new LinkedHashMap<>();
+        long total = 0;
+        System.out.printf("%n%-42s %9s %7s %9s %8s %8s %8s %8s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Recorder recorder = entry.getValue();
+            total += recorder.count();
+            Map<String, Object> endpointReport = recorder.report(seconds);
+            endpointReports.put(entry.getKey(), endpointReport);
+            System.out.printf("%-42s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f%n", entry.getKey(), recorder.count(), recorder.errors(),
+                    recorder.count() / seconds, recorder.percentile(50), recorder.percentile(90), recorder.percentile(99), recorder.percentile(100));
+        }
+        report.put("endpoints", endpointReports);
+        report.put("requestsPerSecond", total / seconds);
+        report.put("deployerRequestsPerSecond", (deployer.requests() - deployerRequestsBefore) / seconds);
+        report.put("sseSubscribersConnected", sse.connected.get());
+        report.put("sseEventsPerSecond", sseEvents / seconds);
+        report.put("heapPeakBytes", peakHeap);
+        report.put("heapAfterGcBytes", heapAfterGc);
+        report.put("gcCount", gcCount);
+        report.put("gcTimeMillis", gcTime);
+
+        System.out.printf("%ntotal %.1f req/s, deployer %.1f req/s%n", total / seconds, (deployer.requests() - deployerRequestsBefore) / seconds);
+        System.out.printf("SSE: %d of %d subscribers connected, %.1f events/s%n", sse.connected.get(), options.sseSubscribers(), sseEvents / seconds);
+        System.out.printf("heap: peak %d MB, %d MB after GC; %d GCs, %d ms%n", peakHeap >> 20, heapAfterGc >> 20, gcCount, gcTime);
+        return report;
+    }
+
+    /**
+     * Run the workers for the given time; latencies are only recorded when recorders are given
+     */
+    private void drive(List<String> applications, Duration duration, Map<String, Recorder> recorders) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < options.workers(); w++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Endpoint endpoint = pick(random.nextDouble());
+                    String application = applications.get(random.nextInt(applications.size()));
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request(endpoint.method(), endpoint.path(application)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (recorders != null) {
+                        recorders.get(endpoint.name()).record(System.nanoTime() - start, ok);
+                    }
+                }
+            }, "loadtest-worker-" + w);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private Endpoint pick(double random) {
+        double total = 0;
+        for (Endpoint endpoint : endpoints) {
+            total += endpoint.weight();
+        }
+        double point = random * total;
+        for (Endpoint endpoint : endpoints) {
+            point -= endpoint.weight();
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(0);
+    }
+
+    private HttpRequest.Builder request(String method, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(hub.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String login() throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", ADMIN_EMAIL, "password", ADMIN_PASSWORD));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(hub.resolve("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asString();
+    }
+
+    private List<String> applications() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request("GET", "/api/deployment/applications").build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<String> names = new ArrayList<>();
+        for (JsonNode application : objectMapper.readTree(response.body())) {
+            names.add(application.get("name").asString());
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("No applications from the hub: " + response.statusCode() + " " + response.body());
+        }
+        return names;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Sum of the per pool peaks, an upper bound of the heap in use at any one time
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Latencies of one endpoint, in nanoseconds
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+
+        /**
+         * Latency in milliseconds at the given percentile (100 is the maximum)
+         */
+        synchronized double percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+
+        Map<String, Object> report(double seconds) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("requests", count());
+            report.put("errors", errors());
+            report.put("requestsPerSecond", count() / seconds);
+            report.put("p50Millis", percentile(50));
+            report.put("p90Millis", percentile(90));
+            report.put("p99Millis", percentile(99));
+            report.put("maxMillis", percentile(100));
+            return report;
+        }
+    }
+
+    /**
+     * Counts the events of all SSE streams without a thread per stream
+     */
+    private static final class SseCounter {
+        private final AtomicInteger connected = new AtomicInteger();
+        private final AtomicLong events = new AtomicLong();
+
+        Flow.Subscriber<String> subscriber() {
+            return new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    connected.incrementAndGet();
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(String line) {
+                    // Every frame, keyframe or delta, starts its event with an event: line
+                    if (line.startsWith("event:")) {
+                        events.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    connected.decrementAndGet();
+                }
+
+                @Override
+                public void onComplete() {
+                    connected.decrementAndGet();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.admin.hub.app.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the deployer on a random local port, answering the endpoints admin-hub calls with
+ * generated payloads: configuration, server health summary and services, application logs and status, /health
+ * and the actions (checkout, build, verify, deploy, restart, stop, full-deploy), plus /probe/* as the
+ * applications' own URLs for the liveness probes.
+ * Every response is delayed by latency plus up to jitter, and fails with a 500 at the given rate.
+ * Payloads are built once per size so the stub itself stays cheap.
+ */
+final class StubDeployer implements AutoCloseable {
+
+    private static final byte[] FAILURE = "{\"success\":false,\"message\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final LoadTest.Options options;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private final byte[] configuration;
+    private final byte[] healthSummary;
+    private final byte[] servicesStatus;
+    private final String[] logLines;
+    // Logs response by application and requested line count
+    private final Map<String, byte[]> logs = new ConcurrentHashMap<>();
+
+    StubDeployer(LoadTest.Options options) throws IOException {
+        this.options = options;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        executor = Executors.newFixedThreadPool(options.stubThreads());
+        server.setExecutor(executor);
+
+        this.configuration = json(Map.of("success", true, "data", Map.of("applications", applications(options.applications()))));
+        this.healthSummary = json(Map.of("success", true, "data", healthData()));
+        this.servicesStatus = json(Map.of("success", true, "data", Map.of("running services", services(options.services()))));
+        this.logLines = new String[options.logLines()];
+        for (int i = 0; i < logLines.length; i++) {
+            logLines[i] = "2025-01-01 12:" + String.format("%02d:%02d", i / 60 % 60, i % 60) + ".123  "
+                    + (i % 50 == 0 ? "ERROR" : i % 10 == 0 ? "WARN " : "INFO ")
+                    + " 1234 --- [nio-8080-exec-" + (i % 10) + "] c.e.app.Controller : handled request " + i;
+        }
+
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    URI baseUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long failures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            delay();
+            String path = exchange.getRequestURI().getPath();
+            if (ThreadLocalRandom.current().nextDouble() < options.failureRate()) {
+                failures.incrementAndGet();
+                send(exchange, 500, FAILURE);
+                return;
+            }
+            byte[] body = route(path, exchange.getRequestURI().getQuery());
+            if (body == null) {
+                send(exchange, 404, "{\"success\":false,\"message\":\"not found\"}".getBytes(StandardCharsets.UTF_8));
+            } else {
+                send(exchange, 200, body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] route(String path, String query) {
+        if (path.equals("/health") || path.startsWith("/probe/")) {
+            return "{\"status\":\"healthy\"}".getBytes(StandardCharsets.UTF_8);
+        }
+        if (path.equals("/api/v1/configuration")) {
+            return configuration;
+        }
+        if (path.equals("/api/v1/server/health/summary")) {
+            return healthSummary;
+        }
+        if (path.equals("/api/v1/server/services/status")) {
+            return servicesStatus;
+        }
+        String app = path.substring(path.lastIndexOf('/') + 1);
+        if (path.startsWith("/api/v1/application/logs/")) {
+            int lines = requestedLines(query);
+            return logs.computeIfAbsent(app + ":" + lines, key -> logs(app, lines));
+        }
+        if (path.startsWith("/api/v1/application/status/")) {
+            return json(Map.of("success", true, "applicationName", app, "status", "active (running)"));
+        }
+        for (String action : new String[]{"/api/v1/repository/checkout/", "/api/v1/build/application/",
+                "/api/v1/artifact/verify/", "/api/v1/deployment/deploy/", "/api/v1/application/restart/",
+                "/api/v1/application/stop/", "/api/v1/deployment/workflow/full-deploy/"}) {
+            if (path.startsWith(action)) {
+                return json(Map.of("success", true, "applicationName", app, "message", "stub " + action + " done"));
+            }
+        }
+        return null;
+    }
+
+    private void delay() {
+        long millis = options.latency().toMillis();
+        long jitter = options.jitter().toMillis();
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private int requestedLines(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("lines=")) {
+                    try {
+                        return Math.min(logLines.length, Integer.parseInt(parameter.substring(6)));
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return Math.min(logLines.length, 1000);
+    }
+
+    private byte[] logs(String app, int lines) {
+        String stdout = String.join("\n", Arrays.copyOfRange(logLines, logLines.length - lines, logLines.length));
+        return json(Map.of("success", true, "data", Map.of("service", app + ".service",
+                "logs", Map.of("code", 0, "stdout", stdout, "stderr", ""))));
+    }
+
+    private Map<String, Object> applications(int count) {
+        Map<String, Object> applications = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = "app-" + i;
+            Map<String, Object> app = new LinkedHashMap<>();
+            app.put("git_url", "https://github.com/example/" + name + ".git");
+            app.put("branch", "main");
+            app.put("build_type", i % 2 == 0 ? "maven" : "npm");
+            app.put("artifact_path", "target/" + name + ".jar");
+            app.put("service_name", name + ".service");
+            app.put("deploy_path", "/opt/apps/" + name);
+            app.put("symlink", "/opt/apps/" + name + "/current");
+            // Liveness probes of the hub come back to the stub
+            app.put("application_url", baseUri() + "/probe/" + name);
+            applications.put(name, app);
+        }
+        return applications;
+    }
+
+    private static Map<String, Object> healthData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cpu", """
+                procs -----------memory---------- ---swap-- -----io---- -system-- -------cpu-------
+                 r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st gu
+                 0  0      0 3720824 124728 2857108    0    0    19    34  434    1  1  0 99  0  0  0
+                 1  0      0 3720000 124728 2857108    0    0     0     0  500  800  5  2 92  1  0  0
+                """);
+        data.put("memory", """
+                               total        used        free      shared  buff/cache   available
+                Mem:           7.8Gi       1.8Gi       3.5Gi       174Mi       2.8Gi       6.0Gi
+                Swap:             0B          0B          0B
+                """);
+        data.put("disk", """
+                Filesystem      Size  Used Avail Use% Mounted on
+                /dev/sda        157G   12G  138G   8% /
+                """);
+        data.put("load_average", " 10:14:33 up 12 days,  3:04,  2 users,  load average: 0.08, 0.03, 0.01");
+        return data;
+    }
+
+    private static String services(int count) {
+        StringBuilder output = new StringBuilder("  UNIT                          LOAD   ACTIVE SUB     DESCRIPTION\n");
+        for (int i = 0; i < count; i++) {
+            output.append(String.format("  service-%03d.service           loaded active running Stub service %d%n", i, i));
+        }
+        return output.append("\nLegend: LOAD   = Reflects whether the unit definition was properly loaded.\n\n")
+                .append(count).append(" loaded units listed.\n").toString();
+    }
+
+    private byte[] json(Object value) {
+        return objectMapper.writeValueAsBytes(value);
+    }
+}
@@ -0,0 +1,224 @@
+package com.admin.hub.app.client;
+
+import com.admin.hub.app.config.DeployerProperties;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking client for the deployer API.
+ * Mirrors the RestTemplate semantics used by the blocking services: 4xx/5xx responses and I/O failures
+ * complete the future exceptionally with the same RestClientException subtypes.
+ * Deployer calls go through the DeployerCircuitBreaker and are recorded by {@link DeployerMetrics};
+ * {@link #ping} targets other hosts and bypasses both.
+ * Responses are deserialized on the application task executor, never on the client's I/O reactor threads, so a
+ * large body (logs, configuration) does not hold up the other calls in flight; stages chained onto the returned
+ * future without an executor run there as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeployerAsyncClient {
+
+    /**
+     * Timeout profile of a deployer call
+     */
+    public enum CallType {
+        /** Fast reads: health, server summary, configuration, status, logs */
+        READ,
+        /** Long running actions: checkout, build, deploy, full-deploy, ... */
+        ACTION
+    }
+
+    private final CloseableHttpAsyncClient deployerAsyncHttpClient;
+    private final DeployerProperties deployerProperties;
+    private final DeployerCircuitBreaker circuitBreaker;
+    private final DeployerMetrics deployerMetrics;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    /**
+     * Call a deployer endpoint and deserialize the JSON body
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> exchange(
+            HttpMethod method, String endpoint, Class<T> responseType, CallType callType) {
+        return doExchange(method, endpoint, HttpHeaders.EMPTY, responseType, callType);
+    }
+
+    /**
+     * Call a deployer endpoint with additional request headers and deserialize the JSON body
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> exchange(
+            HttpMethod method, String endpoint, HttpHeaders requestHeaders, Class<T> responseType, CallType callType) {
+        return doExchange(method, endpoint, requestHeaders, responseType, callType);
+    }
+
+    /**
+     * Call a deployer endpoint and deserialize the JSON body into a generic type
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> exchange(
+            HttpMethod method, String endpoint, ParameterizedTypeReference<T> responseType, CallType callType) {
+        return doExchange(method, endpoint, HttpHeaders.EMPTY, responseType.getType(), callType);
+    }
+
+    /**
+     * GET an arbitrary (non-deployer) URL without the API key and complete with its status code.
+     * The response body is discarded as it streams in instead of being buffered.
+     */
+    public CompletableFuture<HttpStatusCode> ping(String url, Duration timeout) {
+        SimpleHttpRequest request = SimpleRequestBuilder.get(url)
+                .setRequestConfig(requestConfig(timeout))
+                .build();
+        return execute(request, new BasicResponseConsumer<Void>(new DiscardingEntityConsumer<>()))
+                .thenApply(message -> HttpStatusCode.valueOf(message.getHead().getCode()));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> doExchange(
+            HttpMethod method, String endpoint, HttpHeaders requestHeaders, Type responseType, CallType callType) {
+        String url = deployerProperties.getBaseUrl() + endpoint;
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name())
+                .setUri(url)
+                .setRequestConfig(requestConfig(timeoutFor(callType)))
+                .addHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+        if (deployerProperties.getApiKey() != null && !deployerProperties.getApiKey().isEmpty()) {
+            builder.addHeader("X-API-Key", deployerProperties.getApiKey());
+        }
+        requestHeaders.forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+
+        DeployerCircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            deployerMetrics.rejected(endpoint);
+            return CompletableFuture.failedFuture(circuitBreaker.unavailable());
+        }
+        DeployerMetrics.Call metrics = deployerMetrics.start(method.name(), endpoint);
+        CompletableFuture<SimpleHttpResponse> call = execute(builder.build(), SimpleResponseConsumer.create());
+        CompletableFuture<ResponseEntity<T>> result = FutureCancellation.linked(
+                call.thenApplyAsync(response -> toResponseEntity(response, responseType), applicationTaskExecutor), call);
+        result.whenComplete((response, ex) -> {
+            if (ex == null) {
+                circuitBreaker.onSuccess(permit);
+                metrics.complete(response.getStatusCode().value());
+            } else {
+                circuitBreaker.onFailure(permit, ex);
+                metrics.fail(ex);
+            }
+        });
+        return result;
+    }
+
+    private <R> CompletableFuture<R> execute(SimpleHttpRequest request, AsyncResponseConsumer<R> responseConsumer) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Future<R> call = deployerAsyncHttpClient.execute(SimpleRequestProducer.create(request), responseConsumer, new FutureCallback<>() {
+            @Override
+            public void completed(R response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                result.completeExceptionally(new ResourceAccessException(
+                        "I/O error on " + request.getMethod() + " request for \"" + request.getRequestUri() + "\": " + ex.getMessage(),
+                        ex instanceof IOException ioException ? ioException : new IOException(ex)));
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        // Abort the exchange if the caller gives up on the result
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> toResponseEntity(SimpleHttpResponse response, Type responseType) {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        byte[] body = response.getBodyBytes();
+
+        if (status.isError()) {
+            throw statusException(status, response.getReasonPhrase(), headers, body);
+        }
+
+        if (body == null || body.length == 0 || responseType == Void.class) {
+            return new ResponseEntity<>(null, headers, status);
+        }
+        if (responseType == String.class) {
+            return new ResponseEntity<>((T) new String(body, StandardCharsets.UTF_8), headers, status);
+        }
+        if (responseType == byte[].class) {
+            return new ResponseEntity<>((T) body, headers, status);
+        }
+
+        try {
+            JavaType javaType = objectMapper.constructType(responseType);
+            T value = objectMapper.readValue(body, javaType);
+            return new ResponseEntity<>(value, headers, status);
+        } catch (JacksonException e) {
+            throw new RestClientException("Error while extracting response for type [" + responseType.getTypeName() + "]", e);
+        }
+    }
+
+    private RestClientException statusException(HttpStatusCode status, String reason, HttpHeaders headers, byte[] body) {
+        String statusText = reason != null ? reason : "";
+        if (status.is4xxClientError()) {
+            return HttpClientErrorException.create(status, statusText, headers, body, StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            return HttpServerErrorException.create(status, statusText, headers, body, StandardCharsets.UTF_8);
+        }
+        return new UnknownHttpStatusCodeException(status.value(), statusText, headers, body, StandardCharsets.UTF_8);
+    }
+
+    private Duration timeoutFor(CallType callType) {
+        DeployerProperties.Http http = deployerProperties.getHttp();
+        return callType == CallType.ACTION ? http.getActionTimeout() : http.getReadTimeout();
+    }
+
+    private RequestConfig requestConfig(Duration responseTimeout) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(deployerProperties.getHttp().getPoolTimeout().toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.admin.hub.app.client;
+
+import com.admin.hub.app.config.DeployerProperties;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Circuit breaker for calls to the deployer.
+ * CLOSED: calls pass through; deployer.circuit-breaker.failure-threshold consecutive failures (I/O errors,
+ * timeouts or 5xx responses) open the circuit.
+ * OPEN: calls fail fast with {@link DeployerUnavailableException} until the backoff has elapsed.
+ * HALF_OPEN: a single probe call is let through; success closes the circuit, failure reopens it with the
+ * backoff doubled (up to deployer.circuit-breaker.max-open-duration).
+ * Every state change starts a new generation and each {@link Permit} carries the generation it was acquired in.
+ * Outcomes reported with a permit from an older generation are ignored, so a slow call started before the circuit
+ * opened can not close it again or reopen it behind the half-open probe's back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeployerCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Point in time view of the breaker, pushed on the health SSE stream
+     */
+    public record Snapshot(State state, int consecutiveFailures, long retryInMillis) {
+    }
+
+    /**
+     * Permission to make one call, handed back with its outcome
+     */
+    public record Permit(long generation) {
+    }
+
+    private final DeployerProperties deployerProperties;
+
+    private State state = State.CLOSED;
+    // Permit of the current generation, replaced on every state change
+    private Permit permit = new Permit(0);
+    private int consecutiveFailures;
+    private Duration backoff;
+    private long openUntil;
+
+    /**
+     * A permit if a call may be made now, null if not. In HALF_OPEN only the caller that moved the breaker there
+     * gets one, and it must report the outcome through {@link #onSuccess(Permit)}, {@link #onFailure(Permit, Throwable)},
+     * {@link #recordFailure(Permit, String)} or {@link #release(Permit)}.
+     */
+    public synchronized Permit tryAcquire() {
+        if (state == State.CLOSED) {
+            return permit;
+        }
+        if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+            moveTo(State.HALF_OPEN);
+            log.info("Deployer circuit half-open, probing");
+            return permit;
+        }
+        return null;
+    }
+
+    public synchronized void onSuccess(Permit acquired) {
+        if (isStale(acquired)) {
+            return;
+        }
+        if (state != State.CLOSED) {
+            log.info("Deployer circuit closed, deployer is reachable again");
+            moveTo(State.CLOSED);
+        }
+        consecutiveFailures = 0;
+        backoff = null;
+    }
+
+    /**
+     * Record the outcome of a failed call. Failures that say nothing about the deployer's availability
+     * (4xx responses, parse errors) count as a success of the connection.
+     */
+    public synchronized void onFailure(Permit acquired, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof CancellationException) {
+            release(acquired);
+            return;
+        }
+        if (!(cause instanceof ResourceAccessException) && !(cause instanceof HttpServerErrorException)) {
+            onSuccess(acquired);
+            return;
+        }
+        recordFailure(acquired, cause.getMessage());
+    }
+
+    /**
+     * Record a failed connection to the deployer
+     */
+    public synchronized void recordFailure(Permit acquired, String reason) {
+        if (isStale(acquired)) {
+            return;
+        }
+        consecutiveFailures++;
+        DeployerProperties.CircuitBreaker config = deployerProperties.getCircuitBreaker();
+        if (state == State.HALF_OPEN) {
+            Duration doubled = backoff.multipliedBy(2);
+            open(doubled.compareTo(config.getMaxOpenDuration()) > 0 ? config.getMaxOpenDuration() : doubled, reason);
+        } else if (state == State.CLOSED && consecutiveFailures >= config.getFailureThreshold()) {
+            open(config.getOpenDuration(), reason);
+        }
+    }
+
+    /**
+     * Give up a half-open probe without an outcome (e.g. it was cancelled) so the next caller can probe
+     */
+    public synchronized void release(Permit acquired) {
+        if (!isStale(acquired) && state == State.HALF_OPEN) {
+            moveTo(State.OPEN);
+            openUntil = System.nanoTime();
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        long retryIn = state == State.OPEN ? Math.max(0, Duration.ofNanos(openUntil - System.nanoTime()).toMillis()) : 0;
+        return new Snapshot(state, consecutiveFailures, retryIn);
+    }
+
+    /**
+     * Exception handed to callers while the circuit is open
+     */
+    public DeployerUnavailableException unavailable() {
+        return new DeployerUnavailableException(snapshot().retryInMillis());
+    }
+
+    private boolean isStale(Permit acquired) {
+        return acquired.generation() != permit.generation();
+    }
+
+    private void moveTo(State next) {
+        state = next;
+        permit = new Permit(permit.generation() + 1);
+    }
+
+    private void open(Duration duration, String reason) {
+        moveTo(State.OPEN);
+        backoff = duration;
+        openUntil = System.nanoTime() + duration.toNanos();
+        log.warn("Deployer circuit open after {} consecutive failures, retrying in {}s: {}",
+                consecutiveFailures, duration.toSeconds(), reason);
+    }
+}
@@ -0,0 +1,61 @@
+package com.admin.hub.app.client;
+
+import com.admin.hub.app.config.DeployerProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Guards blocking RestTemplate calls to the deployer with the {@link DeployerCircuitBreaker} and records them in
+ * {@link DeployerMetrics} (up to the response headers, the body is read by the caller afterwards).
+ * Requests to other hosts (application liveness URLs) pass through untouched.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeployerCircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final DeployerCircuitBreaker circuitBreaker;
+    private final DeployerMetrics deployerMetrics;
+    private final DeployerProperties deployerProperties;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String baseUrl = deployerProperties.getBaseUrl();
+        String url = request.getURI().toString();
+        if (baseUrl == null || !url.startsWith(baseUrl)) {
+            return execution.execute(request, body);
+        }
+
+        String endpoint = url.substring(baseUrl.length());
+        DeployerCircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            deployerMetrics.rejected(endpoint);
+            throw circuitBreaker.unavailable();
+        }
+        DeployerMetrics.Call metrics = deployerMetrics.start(request.getMethod().name(), endpoint);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+            metrics.complete(response.getStatusCode().value());
+        } catch (IOException e) {
+            circuitBreaker.recordFailure(permit, e.getMessage());
+            metrics.fail(e);
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.release(permit);
+            metrics.fail(e);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            circuitBreaker.recordFailure(permit, "HTTP " + response.getStatusCode().value());
+        } else {
+            circuitBreaker.onSuccess(permit);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,160 @@
+package com.admin.hub.app.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of the calls to the deployer. {@link DeployerAsyncClient} records every exchange until its body is read;
+ * the RestTemplate that streams raw logs (DeploymentService.streamLogs) is recorded by
+ * {@link DeployerCircuitBreakerInterceptor} up to the response headers.
+ * Per endpoint (tag "endpoint", the path with the application name replaced by {application} and without the query):
+ * deployer.requests histogram (tags method and outcome: success, client_error, server_error, timeout, io_error,
+ * cancelled), deployer.errors counter (tag type: client_error, server_error, io_error, circuit_open) and
+ * deployer.timeouts counter. deployer.requests.active gauges the calls in flight.
+ */
+@Component
+public class DeployerMetrics {
+
+    // Endpoints taking the application name as their last path segment
+    private static final List<String> APPLICATION_ENDPOINTS = List.of(
+            "/api/v1/repository/checkout/",
+            "/api/v1/build/application/",
+            "/api/v1/artifact/verify/",
+            "/api/v1/deployment/deploy/",
+            "/api/v1/deployment/workflow/full-deploy/",
+            "/api/v1/application/restart/",
+            "/api/v1/application/stop/",
+            "/api/v1/application/status/",
+            "/api/v1/application/logs/");
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public DeployerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("deployer.requests.active", active, AtomicInteger::get)
+                .description("Calls to the deployer in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A call that is about to be sent; complete it exactly once
+     */
+    public Call start(String method, String endpoint) {
+        active.incrementAndGet();
+        return new Call(method, endpointTag(endpoint), System.nanoTime());
+    }
+
+    /**
+     * A call refused by the open circuit breaker, never sent
+     */
+    public void rejected(String endpoint) {
+        counter("deployer.errors", endpointTag(endpoint), "circuit_open").increment();
+    }
+
+    public final class Call {
+
+        private final String method;
+        private final String endpoint;
+        private final long startedAt;
+
+        private Call(String method, String endpoint, long startedAt) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * The deployer answered with the given HTTP status
+         */
+        public void complete(int status) {
+            finish(status >= 500 ? "server_error" : status >= 400 ? "client_error" : "success");
+        }
+
+        /**
+         * The call failed; an error response (RestClientResponseException) counts by its status
+         */
+        public void fail(Throwable ex) {
+            for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+                if (cause instanceof RestClientResponseException response) {
+                    complete(response.getStatusCode().value());
+                    return;
+                }
+                if (cause instanceof CancellationException) {
+                    finish("cancelled");
+                    return;
+                }
+                if (cause instanceof InterruptedIOException || cause instanceof TimeoutException) {
+                    finish("timeout");
+                    return;
+                }
+            }
+            finish("io_error");
+        }
+
+        private void finish(String outcome) {
+            active.decrementAndGet();
+            timer(method, endpoint, outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            switch (outcome) {
+                case "success", "cancelled" -> {
+                }
+                case "timeout" -> counter("deployer.timeouts", endpoint, null).increment();
+                default -> counter("deployer.errors", endpoint, outcome).increment();
+            }
+        }
+    }
+
+    private Timer timer(String method, String endpoint, String outcome) {
+        return timers.computeIfAbsent(method + ' ' + endpoint + ' ' + outcome, key -> Timer.builder("deployer.requests")
+                .description("Calls to the deployer")
+                .tag("method", method)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry));
+    }
+
+    private Counter counter(String name, String endpoint, String type) {
+        return counters.computeIfAbsent(name + ' ' + endpoint + ' ' + type, key -> {
+            Counter.Builder builder = Counter.builder(name).tag("endpoint", endpoint);
+            if (type != null) {
+                builder.description("Failed calls to the deployer").tag("type", type);
+            } else {
+                builder.description("Calls to the deployer that timed out");
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    /**
+     * Bounded tag value for an endpoint: query dropped, application names replaced by {application}
+     */
+    static String endpointTag(String endpoint) {
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        for (String prefix : APPLICATION_ENDPOINTS) {
+            if (path.startsWith(prefix)) {
+                return prefix + "{application}";
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,115 @@
+package com.admin.hub.app.client;
+
+import com.admin.hub.app.config.DeployerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing cache for idempotent deployer reads (server health, running services, deployer health).
+ * Concurrent callers of the same key share a single in-flight upstream call. A successful result is served
+ * from memory for deployer.cache.ttl; after that it is still served (stale-while-revalidate) for up to
+ * deployer.cache.max-stale while one background refresh runs. Failures are never cached: a failed background
+ * refresh keeps the last good value, a failed foreground load fails every caller that joined it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeployerReadCache {
+
+    private final DeployerProperties deployerProperties;
+
+    private final Map<String, Slot<?>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Cached value for the key; a stale value is returned immediately and refreshed in the background
+     */
+    public <T> CompletableFuture<T> get(String key, Supplier<CompletableFuture<T>> loader) {
+        return this.<T>slot(key).get(loader, true);
+    }
+
+    /**
+     * Cached value for the key if it is within the TTL, otherwise wait for (or join) a refresh.
+     * Used by the broadcaster which should never push a value older than one tick.
+     */
+    public <T> CompletableFuture<T> getFresh(String key, Supplier<CompletableFuture<T>> loader) {
+        return this.<T>slot(key).get(loader, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Slot<T> slot(String key) {
+        return (Slot<T>) slots.computeIfAbsent(key, Slot::new);
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    private final class Slot<T> {
+        private final String key;
+        private volatile Entry<T> entry;
+        private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+        private Slot(String key) {
+            this.key = key;
+        }
+
+        CompletableFuture<T> get(Supplier<CompletableFuture<T>> loader, boolean allowStale) {
+            Entry<T> current = entry;
+            if (current != null) {
+                long age = System.nanoTime() - current.loadedAt();
+                DeployerProperties.Cache cache = deployerProperties.getCache();
+                if (age < cache.getTtl().toNanos()) {
+                    return CompletableFuture.completedFuture(current.value());
+                }
+                if (allowStale && age < cache.getMaxStale().toNanos()) {
+                    load(loader);
+                    return CompletableFuture.completedFuture(current.value());
+                }
+            }
+            // Callers get their own copy so cancelling one does not cancel the shared call
+            return load(loader).copy();
+        }
+
+        private CompletableFuture<T> load(Supplier<CompletableFuture<T>> loader) {
+            CompletableFuture<T> pending = new CompletableFuture<>();
+            CompletableFuture<T> existing = inFlight.compareAndExchange(null, pending);
+            if (existing != null) {
+                return existing;
+            }
+
+            CompletableFuture<T> call;
+            try {
+                call = loader.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((value, ex) -> {
+                // Publish the entry before releasing the flight so the next caller sees it
+                if (ex == null) {
+                    entry = new Entry<>(value, System.nanoTime());
+                } else if (entry != null) {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof DeployerUnavailableException) {
+                        log.debug("Refreshing {} skipped, keeping last value: {}", key, cause.getMessage());
+                    } else {
+                        log.warn("Refreshing {} failed, keeping last value: {}", key, cause.getMessage());
+                    }
+                }
+                inFlight.set(null);
+                if (ex == null) {
+                    pending.complete(value);
+                } else {
+                    pending.completeExceptionally(ex);
+                }
+            });
+            return pending;
+        }
+    }
+}
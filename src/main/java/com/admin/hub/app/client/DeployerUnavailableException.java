@@ -0,0 +1,20 @@
+package com.admin.hub.app.client;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Thrown instead of calling the deployer while the circuit breaker is open.
+ * Extends ResourceAccessException so existing error handling treats it like the connection failure it stands for.
+ * Carries no stack trace: it is raised on every call during an outage and the trace says nothing.
+ */
+public class DeployerUnavailableException extends ResourceAccessException {
+
+    public DeployerUnavailableException(long retryInMillis) {
+        super("Deployer service is unavailable (circuit open, retrying in " + Math.max(1, (retryInMillis + 999) / 1000) + "s)");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,27 @@
+package com.admin.hub.app.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Cancelling a dependent stage (thenApply, exceptionally, ...) does not cancel the stage it was derived from.
+ * Spring MVC cancels the future a controller returned when the async request times out or the client goes away,
+ * so every stage handed out on top of a deployer call has to pass that cancellation back to the call itself.
+ */
+public final class FutureCancellation {
+
+    private FutureCancellation() {
+    }
+
+    /**
+     * Cancel source when derived is cancelled; returns derived
+     */
+    public static <T> CompletableFuture<T> linked(CompletableFuture<T> derived, Future<?> source) {
+        derived.whenComplete((result, ex) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+}
@@ -0,0 +1,127 @@
+package com.admin.hub.app.config;
+
+import com.admin.hub.app.client.DeployerCircuitBreakerInterceptor;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * HTTP client configuration for calls to the deployer.
+ * - restTemplate: blocking calls that stream a response through (raw logs), on a keep-alive connection pool
+ *   with the read timeout
+ * - deployerAsyncHttpClient: every other deployer call, non-blocking, with its own pool with the same limits;
+ *   its timeouts (read or action) are applied per request
+ * Deployer calls from the RestTemplate go through the DeployerCircuitBreaker.
+ */
+@Configuration
+public class DeployerClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient deployerHttpClient(DeployerProperties deployerProperties) {
+        DeployerProperties.Http http = deployerProperties.getHttp();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(http))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(toTimeout(http.getPoolTimeout()))
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy(http))
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(http.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient deployerAsyncHttpClient(DeployerProperties deployerProperties) {
+        DeployerProperties.Http http = deployerProperties.getHttp();
+
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxConnections())
+                .setMaxConnPerRoute(http.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(http))
+                .build();
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(2)
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy(http))
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(http.getIdleTimeout()))
+                .build();
+        client.start();
+        return client;
+    }
+
+    @Bean
+    public RestTemplate restTemplate(
+            CloseableHttpClient deployerHttpClient,
+            DeployerProperties deployerProperties,
+            DeployerCircuitBreakerInterceptor circuitBreakerInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(
+                requestFactory(deployerHttpClient, deployerProperties, deployerProperties.getHttp().getReadTimeout()));
+        restTemplate.getInterceptors().add(circuitBreakerInterceptor);
+        return restTemplate;
+    }
+
+    private HttpComponentsClientHttpRequestFactory requestFactory(
+            CloseableHttpClient httpClient,
+            DeployerProperties deployerProperties,
+            Duration readTimeout) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectionRequestTimeout(deployerProperties.getHttp().getPoolTimeout());
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+
+    private static ConnectionConfig connectionConfig(DeployerProperties.Http http) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(toTimeout(http.getConnectTimeout()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    /**
+     * Honour the server's Keep-Alive header but never keep a connection longer than configured
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(DeployerProperties.Http http) {
+        TimeValue maxKeepAlive = toTimeValue(http.getKeepAlive());
+        return (response, context) -> {
+            TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return advertised.compareTo(maxKeepAlive) < 0 ? advertised : maxKeepAlive;
+        };
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
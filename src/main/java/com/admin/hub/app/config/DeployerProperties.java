@@ -3,11 +3,18 @@ package com.admin.hub.app.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @ConfigurationProperties(prefix = "deployer")
 public class DeployerProperties {
     private String baseUrl;
     private String apiKey;
+    // How long the applications configuration is served from memory before it is revalidated
+    private Duration configurationTtl = Duration.ofSeconds(60);
+    private Http http = new Http();
+    private Cache cache = new Cache();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
 
     public String getBaseUrl() {
         return baseUrl;
@@ -24,5 +31,177 @@ public class DeployerProperties {
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
     }
-}
 
+    public Duration getConfigurationTtl() {
+        return configurationTtl;
+    }
+
+    public void setConfigurationTtl(Duration configurationTtl) {
+        this.configurationTtl = configurationTtl;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Connection pool and timeout settings for calls to the deployer
+     */
+    public static class Http {
+        private int maxConnections = 50;
+        private int maxConnectionsPerRoute = 20;
+        private Duration connectTimeout = Duration.ofSeconds(3);
+        private Duration poolTimeout = Duration.ofSeconds(5);
+        private Duration idleTimeout = Duration.ofSeconds(30);
+        private Duration keepAlive = Duration.ofMinutes(2);
+        // Fast reads: /health, /api/v1/server/health/summary, configuration, status, logs
+        private Duration readTimeout = Duration.ofSeconds(10);
+        // Long running actions: checkout, build, deploy, full-deploy, ...
+        private Duration actionTimeout = Duration.ofMinutes(15);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getPoolTimeout() {
+            return poolTimeout;
+        }
+
+        public void setPoolTimeout(Duration poolTimeout) {
+            this.poolTimeout = poolTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getActionTimeout() {
+            return actionTimeout;
+        }
+
+        public void setActionTimeout(Duration actionTimeout) {
+            this.actionTimeout = actionTimeout;
+        }
+    }
+
+    /**
+     * Coalescing cache for deployer reads (server health, running services, deployer health)
+     */
+    public static class Cache {
+        // Served from memory without calling the deployer
+        private Duration ttl = Duration.ofSeconds(3);
+        // Served stale while a background refresh runs; older values are reloaded in the foreground
+        private Duration maxStale = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getMaxStale() {
+            return maxStale;
+        }
+
+        public void setMaxStale(Duration maxStale) {
+            this.maxStale = maxStale;
+        }
+    }
+
+    /**
+     * Circuit breaker around the deployer connection
+     */
+    public static class CircuitBreaker {
+        // Consecutive I/O errors, timeouts or 5xx responses before the circuit opens
+        private int failureThreshold = 5;
+        // First wait before a half-open probe; doubled after every failed probe
+        private Duration openDuration = Duration.ofSeconds(5);
+        private Duration maxOpenDuration = Duration.ofMinutes(2);
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public Duration getMaxOpenDuration() {
+            return maxOpenDuration;
+        }
+
+        public void setMaxOpenDuration(Duration maxOpenDuration) {
+            this.maxOpenDuration = maxOpenDuration;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.admin.hub.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "monitoring")
+public class MonitoringProperties {
+    private Probe probe = new Probe();
+    private Polling polling = new Polling();
+    private Sse sse = new Sse();
+    private Logs logs = new Logs();
+    private History history = new History();
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Application liveness probing (application_url of each configured app)
+     */
+    @Data
+    public static class Probe {
+        // Probes slower than this are reported as "timeout"
+        private Duration timeout = Duration.ofSeconds(3);
+        // Maximum number of application URLs probed at the same time
+        private int maxConcurrency = 8;
+    }
+
+    /**
+     * Background polling of the deployer by the SSE broadcaster
+     */
+    @Data
+    public static class Polling {
+        // Poll interval while SSE clients are connected
+        private Duration interval = Duration.ofSeconds(5);
+        // Each run starts up to this much later than its tick, so jobs do not hit the deployer together
+        private Duration jitter = Duration.ofMillis(500);
+        // Poll interval while no SSE client is connected; 0 pauses polling until a client subscribes
+        private Duration idleInterval = Duration.ofSeconds(60);
+    }
+
+    /**
+     * SSE streams pushed to the dashboard
+     */
+    @Data
+    public static class Sse {
+        // Full state is resent at least this often; in between only changed fields are sent
+        private Duration keyframeInterval = Duration.ofSeconds(60);
+        // Frames queued per subscriber; on overflow the backlog is dropped and the client resyncs from a keyframe
+        private int queueCapacity = 16;
+        // Subscribers overflowing this many times in a row are disconnected
+        private int maxOverflows = 3;
+        // Subscribers whose current write has been blocked this long are disconnected
+        private Duration writeTimeout = Duration.ofSeconds(30);
+        // Threads writing queued frames to the connections
+        private int writerThreads = 4;
+    }
+
+    /**
+     * Follow-mode log streaming (/api/deployment/logs/{applicationName}/stream) and log search
+     */
+    @Data
+    public static class Logs {
+        // How often the tail of each watched application is fetched from the deployer
+        private Duration pollInterval = Duration.ofSeconds(2);
+        // Lines fetched per poll; more new lines than this between two polls leaves a gap
+        private int pollLines = 200;
+        // Lines of each stream (stdout, stderr) sent to a viewer on connect
+        private int tailLines = 500;
+        // Searches scanning longer than this are aborted (guards against runaway regular expressions)
+        private Duration searchTimeout = Duration.ofSeconds(2);
+        // Indexed log windows kept for paging through search results, and for how long
+        private int searchSnapshots = 4;
+        private Duration searchSnapshotTtl = Duration.ofMinutes(2);
+        // Lines kept in memory per application for log views and search
+        private int bufferLines = 10000;
+        // Log views within this long of the last refresh are served from the buffer without asking the deployer
+        private Duration bufferTtl = Duration.ofSeconds(2);
+        // Compressed log buffers of all applications together; least recently viewed applications are dropped first
+        private DataSize bufferMaxMemory = DataSize.ofMegabytes(32);
+    }
+
+    /**
+     * Server health history (GET /api/server/health/history); every in-memory tier is a fixed-size ring, the
+     * on-disk history is reloaded on startup
+     */
+    @Data
+    public static class History {
+        // Individual samples: 6 hours at the 5s polling interval
+        private int rawSamples = 4320;
+        // 1-minute buckets: 1 day
+        private int minuteBuckets = 1440;
+        // 1-hour buckets: 30 days
+        private int hourBuckets = 720;
+        // 1-day buckets: 1 year
+        private int dayBuckets = 365;
+        // Directory of the on-disk history (HealthHistoryStore), empty to keep history in memory only
+        private String directory = "data/health-history";
+        // Records per memory-mapped segment before it is compacted: 1 day at the 5s polling interval
+        private int segmentRecords = 17280;
+        // Compacted blocks older than this are deleted
+        private Duration retention = Duration.ofDays(400);
+        // Liveness changes kept in memory per application
+        private int probeTransitions = 500;
+    }
+
+    /**
+     * Prometheus scraping of /actuator/prometheus
+     */
+    @Data
+    public static class Metrics {
+        // Static bearer token a Prometheus server scrapes with; it grants /actuator/prometheus only. Empty: admin JWT only
+        private String scrapeToken = "";
+    }
+}
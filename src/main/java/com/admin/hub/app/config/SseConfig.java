@@ -0,0 +1,31 @@
+package com.admin.hub.app.config;
+
+import com.admin.hub.app.service.SseDeltaStream;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * Delta encoders for the SSE event streams, injected into the controllers by name
+ */
+@Configuration
+public class SseConfig {
+
+    @Bean
+    public SseDeltaStream healthDeltaStream(ObjectMapper objectMapper, MonitoringProperties monitoringProperties) {
+        return new SseDeltaStream(objectMapper, "health", Map.of(), () -> monitoringProperties.getSse().getKeyframeInterval());
+    }
+
+    @Bean
+    public SseDeltaStream appStatusDeltaStream(ObjectMapper objectMapper, MonitoringProperties monitoringProperties) {
+        return new SseDeltaStream(objectMapper, "appStatus", Map.of(), () -> monitoringProperties.getSse().getKeyframeInterval());
+    }
+
+    @Bean
+    public SseDeltaStream serverHealthDeltaStream(ObjectMapper objectMapper, MonitoringProperties monitoringProperties) {
+        return new SseDeltaStream(objectMapper, "serverHealth", Map.of("runningServices", "name"),
+                () -> monitoringProperties.getSse().getKeyframeInterval());
+    }
+}
@@ -0,0 +1,233 @@
+package com.admin.hub.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of the Angular build under classpath:/static/, read once at startup so requests never touch
+ * the classpath.
+ * <ul>
+ *   <li>content-hashed files (main-XXXXXXXX.js, chunk-*.js, styles-*.css, media/*) are cached by browsers for a
+ *   year as immutable</li>
+ *   <li>everything else (index.html, favicon, assets/) is revalidated on every use and answered with 304 while
+ *   its ETag still matches</li>
+ *   <li>paths without a file extension are Angular routes and get index.html; missing files get a 404 instead of
+ *   index.html, so a stale bundle reference fails loudly</li>
+ * </ul>
+ * The .br/.gz variants written by the UI build (ui/scripts/precompress.mjs) are picked by Accept-Encoding.
+ */
+@Slf4j
+public class StaticResourceIndex implements ResourceResolver {
+
+    private static final String INDEX_HTML = "index.html";
+    // Hash appended by the Angular build with outputHashing=all
+    private static final Pattern CONTENT_HASHED = Pattern.compile("-[A-Z0-9]{8,}\\.[A-Za-z0-9]+$");
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    private final Map<String, Entry> entries;
+
+    private record Entry(IndexedResource identity, IndexedResource brotli, IndexedResource gzip) {
+
+        IndexedResource select(String acceptEncoding) {
+            if (acceptEncoding != null && (brotli != null || gzip != null)) {
+                String accepted = acceptEncoding.toLowerCase(Locale.ROOT);
+                if (brotli != null && accepts(accepted, "br")) {
+                    return brotli;
+                }
+                if (gzip != null && accepts(accepted, "gzip")) {
+                    return gzip;
+                }
+            }
+            return identity;
+        }
+
+        private static boolean accepts(String acceptEncoding, String coding) {
+            for (String token : acceptEncoding.split(",")) {
+                int params = token.indexOf(';');
+                String name = (params < 0 ? token : token.substring(0, params)).trim();
+                if (name.equals(coding)) {
+                    return params < 0 || !token.substring(params + 1).replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+            return false;
+        }
+    }
+
+    private StaticResourceIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Read every file below the location (a classpath: directory) into memory
+     */
+    public static StaticResourceIndex load(String location) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, byte[]> files = new HashMap<>();
+        Map<String, Long> modified = new HashMap<>();
+        for (Resource root : resolver.getResources(location)) {
+            if (!root.exists()) {
+                continue;
+            }
+            String rootUrl = root.getURL().toString();
+            for (Resource resource : resolver.getResources(rootUrl + "**")) {
+                String url = resource.getURL().toString();
+                if (url.endsWith("/") || !resource.isReadable() || !url.startsWith(rootUrl)) {
+                    continue;
+                }
+                String path = url.substring(rootUrl.length());
+                if (!files.containsKey(path)) {
+                    try (InputStream in = resource.getInputStream()) {
+                        files.put(path, StreamUtils.copyToByteArray(in));
+                    }
+                    modified.put(path, lastModified(resource));
+                }
+            }
+        }
+
+        Map<String, Entry> entries = new HashMap<>();
+        long totalBytes = 0;
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            String path = file.getKey();
+            if ((path.endsWith(".br") || path.endsWith(".gz")) && files.containsKey(path.substring(0, path.length() - 3))) {
+                continue;
+            }
+            boolean encoded = files.containsKey(path + ".br") || files.containsKey(path + ".gz");
+            long lastModified = modified.get(path);
+            entries.put(path, new Entry(
+                    IndexedResource.of(path, file.getValue(), null, encoded, lastModified),
+                    IndexedResource.of(path, files.get(path + ".br"), "br", encoded, lastModified),
+                    IndexedResource.of(path, files.get(path + ".gz"), "gzip", encoded, lastModified)));
+            totalBytes += file.getValue().length;
+        }
+        log.info("Indexed {} static files ({} KB) from {}", entries.size(), totalBytes / 1024, location);
+        return new StaticResourceIndex(Map.copyOf(entries));
+    }
+
+    /**
+     * ETag generator for the resource handler, precomputed for indexed resources
+     */
+    public static String etag(Resource resource) {
+        return resource instanceof IndexedResource indexed ? indexed.etag : null;
+    }
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath, List<? extends Resource> locations,
+                                    ResourceResolverChain chain) {
+        Entry entry = entries.get(requestPath);
+        if (entry == null) {
+            if (requestPath.startsWith("api/") || hasExtension(requestPath)) {
+                return null;
+            }
+            entry = entries.get(INDEX_HTML);
+            if (entry == null) {
+                return null;
+            }
+        }
+        return request != null ? entry.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) : entry.identity();
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return entries.containsKey(resourcePath) ? resourcePath : null;
+    }
+
+    private static boolean hasExtension(String path) {
+        return path.indexOf('.', path.lastIndexOf('/') + 1) >= 0;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * One indexed file or one encoded variant of it. The media type comes from the original file name.
+     */
+    static final class IndexedResource extends AbstractResource implements HttpResource {
+
+        private final String path;
+        private final byte[] content;
+        private final String filename;
+        private final long lastModified;
+        private final String etag;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private IndexedResource(String path, byte[] content, String coding, boolean varies, long lastModified) {
+            this.path = coding != null ? path + " (" + coding + ")" : path;
+            this.content = content;
+            this.filename = path.substring(path.lastIndexOf('/') + 1);
+            this.lastModified = lastModified;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+            headers.set(HttpHeaders.CACHE_CONTROL, CONTENT_HASHED.matcher(filename).find() ? IMMUTABLE : REVALIDATE);
+            if (coding != null) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, coding);
+            }
+            if (varies) {
+                headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+
+        private static IndexedResource of(String path, byte[] content, String coding, boolean varies, long lastModified) {
+            return content != null ? new IndexedResource(path, content, coding, varies, lastModified) : null;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public long contentLength() {
+            return content.length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "static resource [" + path + "]";
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
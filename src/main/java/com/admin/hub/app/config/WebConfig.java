@@ -1,48 +1,31 @@
 package com.admin.hub.app.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final String STATIC_LOCATION = "classpath:/static/";
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        StaticResourceIndex staticResourceIndex;
+        try {
+            staticResourceIndex = StaticResourceIndex.load(STATIC_LOCATION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index static resources", e);
+        }
+
+        // Angular routes resolve to index.html, cache headers and precompressed variants come from the index
         registry.addResourceHandler("/**")
-                .addResourceLocations("classpath:/static/")
-                .resourceChain(true)
-                .addResolver(new PathResourceResolver() {
-                    @Override
-                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
-                        Resource requestedResource = location.createRelative(resourcePath);
-
-                        // If the resource exists, return it
-                        if (requestedResource.exists() && requestedResource.isReadable()) {
-                            return requestedResource;
-                        }
-
-                        // For Angular routing: if it's not an API call and resource doesn't exist,
-                        // return index.html to let Angular handle the route
-                        if (!resourcePath.startsWith("api/")) {
-                            return new ClassPathResource("/static/index.html");
-                        }
-
-                        return null;
-                    }
-                });
-    }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+                .addResourceLocations(STATIC_LOCATION)
+                .setEtagGenerator(StaticResourceIndex::etag)
+                .resourceChain(false)
+                .addResolver(staticResourceIndex);
     }
 }
-
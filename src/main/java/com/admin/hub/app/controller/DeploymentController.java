@@ -1,20 +1,34 @@
 package com.admin.hub.app.controller;
 
+import com.admin.hub.app.client.FutureCancellation;
 import com.admin.hub.app.dto.ApplicationConfiguration;
 import com.admin.hub.app.dto.DeploymentResponse;
+import com.admin.hub.app.dto.LogSearchResponse;
+import com.admin.hub.app.event.SseSubscriberConnectedEvent;
 import com.admin.hub.app.service.DeploymentService;
+import com.admin.hub.app.service.HealthHistoryStore;
+import com.admin.hub.app.service.LogSearchService;
+import com.admin.hub.app.service.LogSearchTimeoutException;
+import com.admin.hub.app.service.LogTailService;
+import com.admin.hub.app.service.SseDeltaStream;
+import com.admin.hub.app.service.SseDispatcher;
+import com.admin.hub.app.service.SseSubscriber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 @RestController
@@ -24,8 +38,15 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class DeploymentController {
 
     private final DeploymentService deploymentService;
-    private final List<SseEmitter> healthEmitters = new CopyOnWriteArrayList<>();
-    private final List<SseEmitter> appsStatusEmitters = new CopyOnWriteArrayList<>();
+    private final LogTailService logTailService;
+    private final LogSearchService logSearchService;
+    private final HealthHistoryStore healthHistoryStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SseDeltaStream healthDeltaStream;
+    private final SseDeltaStream appStatusDeltaStream;
+    private final SseDispatcher sseDispatcher;
+    private final List<SseSubscriber> healthSubscribers = new CopyOnWriteArrayList<>();
+    private final List<SseSubscriber> appsStatusSubscribers = new CopyOnWriteArrayList<>();
 
     private static final String HEALTHY_KEY = "healthy";
     private static final String MESSAGE_KEY = "message";
@@ -34,277 +55,253 @@ public class DeploymentController {
      * Health check
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, Object>> health() {
-        Map<String, Object> response = new HashMap<>();
-        boolean isHealthy = deploymentService.healthCheck();
-        response.put(HEALTHY_KEY, isHealthy);
-        response.put(MESSAGE_KEY, isHealthy ? "Deployer service is healthy" : "Deployer service is unavailable");
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> health() {
+        return deploymentService.healthCheckAsync().thenApply(isHealthy -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put(HEALTHY_KEY, isHealthy);
+            response.put(MESSAGE_KEY, isHealthy ? "Deployer service is healthy" : "Deployer service is unavailable");
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * Get all configured applications
      */
     @GetMapping("/applications")
-    public ResponseEntity<List<ApplicationConfiguration>> getApplications() {
-        try {
-            List<ApplicationConfiguration> applications = deploymentService.getApplications();
-            return ResponseEntity.ok(applications);
-        } catch (Exception e) {
-            log.error("Error fetching applications", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<List<ApplicationConfiguration>>> getApplications() {
+        CompletableFuture<List<ApplicationConfiguration>> applications = deploymentService.getApplicationsAsync();
+        return FutureCancellation.linked(applications
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    log.error("Error fetching applications", unwrap(e));
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                }), applications);
     }
 
     /**
      * Checkout application repository
      */
     @PostMapping("/checkout/{applicationName}")
-    public ResponseEntity<DeploymentResponse> checkout(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.checkout(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("checkout")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> checkout(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.checkoutAsync(applicationName), applicationName, "checkout");
     }
 
     /**
      * Build application
      */
     @PostMapping("/build/{applicationName}")
-    public ResponseEntity<DeploymentResponse> build(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.build(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("build")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> build(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.buildAsync(applicationName), applicationName, "build");
     }
 
     /**
      * Verify build artifact
      */
     @PostMapping("/verify/{applicationName}")
-    public ResponseEntity<DeploymentResponse> verify(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.verify(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("verify")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> verify(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.verifyAsync(applicationName), applicationName, "verify");
     }
 
     /**
      * Deploy application
      */
     @PostMapping("/deploy/{applicationName}")
-    public ResponseEntity<DeploymentResponse> deploy(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.deploy(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("deploy")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> deploy(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.deployAsync(applicationName), applicationName, "deploy");
     }
 
     /**
      * Restart application service
      */
     @PostMapping("/restart/{applicationName}")
-    public ResponseEntity<DeploymentResponse> restart(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.restart(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("restart")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> restart(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.restartAsync(applicationName), applicationName, "restart");
     }
 
     /**
      * Stop application service
      */
     @PostMapping("/stop/{applicationName}")
-    public ResponseEntity<DeploymentResponse> stop(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.stop(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("stop")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> stop(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.stopAsync(applicationName), applicationName, "stop");
     }
 
     /**
      * Get application status
      */
     @GetMapping("/status/{applicationName}")
-    public ResponseEntity<DeploymentResponse> getStatus(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.getStatus(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("status")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> getStatus(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.getStatusAsync(applicationName), applicationName, "status");
     }
 
     /**
      * Get application logs
      */
     @GetMapping("/logs/{applicationName}")
-    public ResponseEntity<DeploymentResponse> getLogs(
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> getLogs(
             @PathVariable String applicationName,
             @RequestParam(defaultValue = "1000") Integer lines) {
+        return toResponseEntity(deploymentService.getLogsAsync(applicationName, lines), applicationName, "logs");
+    }
+
+    /**
+     * Search application logs: literal or regex match, optional level filter (level=ERROR&level=WARN),
+     * one page of matching lines at a time. Pass snapshot and nextCursor back to get the next page.
+     */
+    @GetMapping("/logs/{applicationName}/search")
+    public CompletableFuture<ResponseEntity<LogSearchResponse>> searchLogs(
+            @PathVariable String applicationName,
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "false") boolean regex,
+            @RequestParam(defaultValue = "true") boolean ignoreCase,
+            @RequestParam(required = false) List<String> level,
+            @RequestParam(defaultValue = "10000") Integer lines,
+            @RequestParam(required = false) String snapshot,
+            @RequestParam(defaultValue = "0") Integer cursor,
+            @RequestParam(defaultValue = "100") Integer limit) {
+        LogSearchService.Query query;
         try {
-            DeploymentResponse response = deploymentService.getLogs(applicationName, lines);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("logs")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
+            query = LogSearchService.Query.of(q, regex, ignoreCase, level);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(searchError(applicationName, HttpStatus.BAD_REQUEST, e));
         }
+        CompletableFuture<LogSearchResponse> search = logSearchService.search(applicationName, query, lines, snapshot, cursor, limit);
+        return FutureCancellation.linked(search
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    Throwable e = unwrap(ex);
+                    if (e instanceof IllegalArgumentException) {
+                        return searchError(applicationName, HttpStatus.BAD_REQUEST, e);
+                    }
+                    if (e instanceof LogSearchTimeoutException) {
+                        log.warn("Log search for {} timed out: {}", applicationName, e.getMessage());
+                        return searchError(applicationName, HttpStatus.SERVICE_UNAVAILABLE, e);
+                    }
+                    log.error("Error searching logs for {}: {}", applicationName, e.getMessage());
+                    return searchError(applicationName, HttpStatus.INTERNAL_SERVER_ERROR, e);
+                }), search);
+    }
+
+    /**
+     * Get application logs as the deployer's JSON ({"success": ..., "data": {"logs": {"stdout", "stderr"}}}),
+     * streamed straight through instead of being parsed and re-serialized
+     */
+    @GetMapping(value = "/logs/{applicationName}/raw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getRawLogs(
+            @PathVariable String applicationName,
+            @RequestParam(defaultValue = "1000") Integer lines) {
+        StreamingResponseBody body = output -> {
+            try {
+                deploymentService.streamLogs(applicationName, lines, output);
+            } catch (RestClientException e) {
+                log.error("Error streaming logs for {}: {}", applicationName, e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * SSE endpoint following application logs: the recent tail first, then only new lines
+     */
+    @GetMapping(value = "/logs/{applicationName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<SseEmitter>> streamLogs(
+            @PathVariable String applicationName,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return logTailService.isConfiguredAsync(applicationName).thenApply(configured -> {
+            if (!configured) {
+                return ResponseEntity.notFound().build();
+            }
+            SseEmitter emitter = new SseEmitter(300000L); // 5 minutes timeout, clients resume with Last-Event-ID
+            logTailService.follow(applicationName, emitter, lastEventId);
+            return ResponseEntity.ok(emitter);
+        });
     }
 
     /**
      * Execute full deployment workflow
      */
     @PostMapping("/full-deploy/{applicationName}")
-    public ResponseEntity<DeploymentResponse> fullDeploy(@PathVariable String applicationName) {
-        try {
-            DeploymentResponse response = deploymentService.fullDeploy(applicationName);
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action("full-deploy")
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        }
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> fullDeploy(@PathVariable String applicationName) {
+        return toResponseEntity(deploymentService.fullDeployAsync(applicationName), applicationName, "full-deploy");
     }
 
     /**
      * Execute custom deployment action
      */
     @PostMapping("/execute")
-    public ResponseEntity<DeploymentResponse> executeAction(
+    public CompletableFuture<ResponseEntity<DeploymentResponse>> executeAction(
             @RequestParam String applicationName,
             @RequestParam String action,
             @RequestParam(required = false) Integer lines) {
-        try {
-            DeploymentResponse response;
-            switch (action.toLowerCase()) {
-                case "checkout":
-                    response = deploymentService.checkout(applicationName);
-                    break;
-                case "build":
-                    response = deploymentService.build(applicationName);
-                    break;
-                case "verify":
-                    response = deploymentService.verify(applicationName);
-                    break;
-                case "deploy":
-                    response = deploymentService.deploy(applicationName);
-                    break;
-                case "restart":
-                    response = deploymentService.restart(applicationName);
-                    break;
-                case "status":
-                    response = deploymentService.getStatus(applicationName);
-                    break;
-                case "logs":
-                    response = deploymentService.getLogs(applicationName, lines != null ? lines : 100);
-                    break;
-                case "full-deploy":
-                    response = deploymentService.fullDeploy(applicationName);
-                    break;
-                default:
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(DeploymentResponse.builder()
-                                    .applicationName(applicationName)
-                                    .action(action)
-                                    .success(false)
-                                    .message("Unknown action: " + action)
-                                    .build());
-            }
-            return response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(DeploymentResponse.builder()
-                            .applicationName(applicationName)
-                            .action(action)
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
+        CompletableFuture<DeploymentResponse> response;
+        switch (action.toLowerCase()) {
+            case "checkout":
+                response = deploymentService.checkoutAsync(applicationName);
+                break;
+            case "build":
+                response = deploymentService.buildAsync(applicationName);
+                break;
+            case "verify":
+                response = deploymentService.verifyAsync(applicationName);
+                break;
+            case "deploy":
+                response = deploymentService.deployAsync(applicationName);
+                break;
+            case "restart":
+                response = deploymentService.restartAsync(applicationName);
+                break;
+            case "status":
+                response = deploymentService.getStatusAsync(applicationName);
+                break;
+            case "logs":
+                response = deploymentService.getLogsAsync(applicationName, lines != null ? lines : 100);
+                break;
+            case "full-deploy":
+                response = deploymentService.fullDeployAsync(applicationName);
+                break;
+            default:
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(DeploymentResponse.builder()
+                                .applicationName(applicationName)
+                                .action(action)
+                                .success(false)
+                                .message("Unknown action: " + action)
+                                .build()));
         }
+        return toResponseEntity(response, applicationName, action);
     }
 
     /**
      * Check if application is live by testing the application URL
      */
     @GetMapping("/applications/{applicationName}/health")
-    public ResponseEntity<Map<String, Object>> checkAppLiveStatus(@PathVariable String applicationName) {
-        try {
-            boolean isLive = deploymentService.checkAppLiveStatus(applicationName);
-            Map<String, Object> response = new HashMap<>();
-            response.put("applicationName", applicationName);
-            response.put("live", isLive);
-            response.put(MESSAGE_KEY, isLive ? "Application is live" : "Application is not responding");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error checking live status for {}", applicationName, e);
-            Map<String, Object> response = new HashMap<>();
-            response.put("applicationName", applicationName);
-            response.put("live", false);
-            response.put(MESSAGE_KEY, "Error checking application status: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> checkAppLiveStatus(@PathVariable String applicationName) {
+        return deploymentService.checkAppLiveStatusAsync(applicationName)
+                .thenApply(isLive -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("applicationName", applicationName);
+                    response.put("live", isLive);
+                    response.put(MESSAGE_KEY, isLive ? "Application is live" : "Application is not responding");
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(ex -> {
+                    Throwable e = unwrap(ex);
+                    log.error("Error checking live status for {}", applicationName, e);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("applicationName", applicationName);
+                    response.put("live", false);
+                    response.put(MESSAGE_KEY, "Error checking application status: " + e.getMessage());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+                });
+    }
+
+    /**
+     * Liveness changes of the application recorded by the status broadcaster, oldest first
+     */
+    @GetMapping("/applications/{applicationName}/health/history")
+    public ResponseEntity<List<HealthHistoryStore.ProbeTransition>> getAppLiveStatusHistory(@PathVariable String applicationName) {
+        return ResponseEntity.ok(healthHistoryStore.getProbeHistory(applicationName));
     }
 
     /**
@@ -313,60 +310,80 @@ public class DeploymentController {
     @GetMapping(value = "/health/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter streamHealthAndApps() {
         SseEmitter emitter = new SseEmitter(300000L); // 5 minutes timeout
-        healthEmitters.add(emitter);
-        appsStatusEmitters.add(emitter);
+        boolean firstSubscriber = !hasSubscribers();
+
+        SseSubscriber subscriber = sseDispatcher.open(emitter);
 
         // Set up callbacks for cleanup
-        emitter.onCompletion(() -> {
-            healthEmitters.remove(emitter);
-            appsStatusEmitters.remove(emitter);
-        });
-        emitter.onTimeout(() -> {
-            healthEmitters.remove(emitter);
-            appsStatusEmitters.remove(emitter);
-        });
+        Runnable cleanup = () -> {
+            subscriber.close();
+            healthSubscribers.remove(subscriber);
+            appsStatusSubscribers.remove(subscriber);
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
         emitter.onError(throwable -> {
-            healthEmitters.remove(emitter);
-            appsStatusEmitters.remove(emitter);
+            cleanup.run();
             log.debug("SSE connection error", throwable);
         });
 
+        // Late joiners start from the current keyframes, later broadcasts are deltas against them
+        sseDispatcher.join(subscriber, healthDeltaStream, healthSubscribers);
+        sseDispatcher.join(subscriber, appStatusDeltaStream, appsStatusSubscribers);
+
+        if (firstSubscriber) {
+            eventPublisher.publishEvent(new SseSubscriberConnectedEvent(SseSubscriberConnectedEvent.Stream.DEPLOYMENT_HEALTH));
+        }
         return emitter;
     }
 
+    /**
+     * Whether any client is subscribed to the health or app status stream
+     */
+    public boolean hasSubscribers() {
+        return !healthSubscribers.isEmpty() || !appsStatusSubscribers.isEmpty();
+    }
+
     /**
      * Method to broadcast health updates to all connected clients
      */
     public void broadcastHealthUpdate(Map<String, Object> healthData) {
-        for (SseEmitter emitter : healthEmitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .id(String.valueOf(System.currentTimeMillis()))
-                        .name("health")
-                        .data(healthData)
-                        .reconnectTime(1000));
-            } catch (IOException e) {
-                healthEmitters.remove(emitter);
-                log.error("Error sending health update to emitter", e);
-            }
-        }
+        sseDispatcher.broadcast(healthDeltaStream, healthData, healthSubscribers);
     }
 
     /**
      * Method to broadcast app status updates to all connected clients
      */
     public void broadcastAppStatusUpdate(Map<String, Object> appStatusData) {
-        for (SseEmitter emitter : appsStatusEmitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .id(String.valueOf(System.currentTimeMillis()))
-                        .name("appStatus")
-                        .data(appStatusData)
-                        .reconnectTime(1000));
-            } catch (IOException e) {
-                appsStatusEmitters.remove(emitter);
-                log.error("Error sending app status update to emitter", e);
-            }
-        }
+        sseDispatcher.broadcast(appStatusDeltaStream, appStatusData, appsStatusSubscribers);
+    }
+
+    /**
+     * Map a deferred deployment result to the HTTP response once the deployer has answered; when MVC cancels the
+     * response (async timeout, client gone) the deployer call is aborted
+     */
+    private CompletableFuture<ResponseEntity<DeploymentResponse>> toResponseEntity(
+            CompletableFuture<DeploymentResponse> future, String applicationName, String action) {
+        return FutureCancellation.linked(future
+                .thenApply(response -> response.isSuccess() ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response))
+                .exceptionally(ex -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(DeploymentResponse.builder()
+                                .applicationName(applicationName)
+                                .action(action)
+                                .success(false)
+                                .message(unwrap(ex).getMessage())
+                                .build())), future);
+    }
+
+    private static ResponseEntity<LogSearchResponse> searchError(String applicationName, HttpStatus status, Throwable e) {
+        return ResponseEntity.status(status).body(LogSearchResponse.builder()
+                .applicationName(applicationName)
+                .success(false)
+                .message(e.getMessage())
+                .build());
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
     }
 }
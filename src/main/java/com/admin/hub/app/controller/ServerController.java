@@ -1,20 +1,30 @@
 package com.admin.hub.app.controller;
 
+import com.admin.hub.app.dto.HealthHistoryResponse;
 import com.admin.hub.app.dto.RunningService;
 import com.admin.hub.app.dto.ServerHealthSummary;
+import com.admin.hub.app.event.SseSubscriberConnectedEvent;
+import com.admin.hub.app.service.HealthTimeSeries;
 import com.admin.hub.app.service.ServerService;
+import com.admin.hub.app.service.SseDeltaStream;
+import com.admin.hub.app.service.SseDispatcher;
+import com.admin.hub.app.service.SseSubscriber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 @RestController
@@ -24,34 +34,59 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class ServerController {
 
     private final ServerService serverService;
-    private final List<SseEmitter> serverHealthEmitters = new CopyOnWriteArrayList<>();
+    private final HealthTimeSeries healthTimeSeries;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SseDeltaStream serverHealthDeltaStream;
+    private final SseDispatcher sseDispatcher;
+    private final List<SseSubscriber> serverHealthSubscribers = new CopyOnWriteArrayList<>();
 
     /**
      * Get list of running systemd services
      */
     @GetMapping("/services/status")
-    public ResponseEntity<List<RunningService>> getRunningServices() {
-        try {
-            List<RunningService> services = serverService.getRunningServices();
-            return ResponseEntity.ok(services);
-        } catch (Exception e) {
-            log.error("Error fetching running services", e);
-            return ResponseEntity.internalServerError().build();
-        }
+    public CompletableFuture<ResponseEntity<List<RunningService>>> getRunningServices() {
+        return serverService.getRunningServicesAsync()
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    log.error("Error fetching running services", e);
+                    return ResponseEntity.internalServerError().build();
+                });
     }
 
     /**
      * Get server health summary
      */
     @GetMapping("/health/summary")
-    public ResponseEntity<ServerHealthSummary> getServerHealthSummary() {
-        try {
-            ServerHealthSummary summary = serverService.getServerHealthSummary();
-            return ResponseEntity.ok(summary);
-        } catch (Exception e) {
-            log.error("Error fetching server health summary", e);
-            return ResponseEntity.internalServerError().build();
+    public CompletableFuture<ResponseEntity<ServerHealthSummary>> getServerHealthSummary() {
+        return serverService.getServerHealthSummaryAsync()
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    log.error("Error fetching server health summary", e);
+                    return ResponseEntity.internalServerError().build();
+                });
+    }
+
+    /**
+     * Server health history between from and to (epoch millis, default the last hour).
+     * resolution is raw, minute, hour or day; auto picks the finest one returning at most maxPoints points.
+     */
+    @GetMapping("/health/history")
+    public ResponseEntity<HealthHistoryResponse> getServerHealthHistory(
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "auto") String resolution,
+            @RequestParam(defaultValue = "1000") Integer maxPoints) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - Duration.ofHours(1).toMillis();
+        HealthTimeSeries.Resolution tier = null;
+        if (!"auto".equalsIgnoreCase(resolution)) {
+            try {
+                tier = HealthTimeSeries.Resolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
         }
+        return ResponseEntity.ok(healthTimeSeries.query(start, end, tier, Math.max(1, Math.min(maxPoints, 10000))));
     }
 
     /**
@@ -60,34 +95,42 @@ public class ServerController {
     @GetMapping(value = "/health/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter streamServerHealth() {
         SseEmitter emitter = new SseEmitter(300000L); // 5 minutes timeout
-        serverHealthEmitters.add(emitter);
+        boolean firstSubscriber = !hasSubscribers();
+
+        SseSubscriber subscriber = sseDispatcher.open(emitter);
 
         // Set up callbacks for cleanup
-        emitter.onCompletion(() -> serverHealthEmitters.remove(emitter));
-        emitter.onTimeout(() -> serverHealthEmitters.remove(emitter));
+        Runnable cleanup = () -> {
+            subscriber.close();
+            serverHealthSubscribers.remove(subscriber);
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
         emitter.onError(throwable -> {
-            serverHealthEmitters.remove(emitter);
+            cleanup.run();
             log.debug("SSE connection error", throwable);
         });
 
+        // Late joiners start from the current keyframe, later broadcasts are deltas against it
+        sseDispatcher.join(subscriber, serverHealthDeltaStream, serverHealthSubscribers);
+
+        if (firstSubscriber) {
+            eventPublisher.publishEvent(new SseSubscriberConnectedEvent(SseSubscriberConnectedEvent.Stream.SERVER_HEALTH));
+        }
         return emitter;
     }
 
+    /**
+     * Whether any client is subscribed to the server health stream
+     */
+    public boolean hasSubscribers() {
+        return !serverHealthSubscribers.isEmpty();
+    }
+
     /**
      * Method to broadcast server health updates to all connected clients
      */
     public void broadcastServerHealthUpdate(Map<String, Object> serverHealthData) {
-        for (SseEmitter emitter : serverHealthEmitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .id(String.valueOf(System.currentTimeMillis()))
-                        .name("serverHealth")
-                        .data(serverHealthData)
-                        .reconnectTime(1000));
-            } catch (IOException e) {
-                serverHealthEmitters.remove(emitter);
-                log.error("Error sending server health update to emitter", e);
-            }
-        }
+        sseDispatcher.broadcast(serverHealthDeltaStream, serverHealthData, serverHealthSubscribers);
     }
 }
@@ -0,0 +1,33 @@
+package com.admin.hub.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Server health history in columnar form, ready for chart series: one timestamp per point and per metric
+ * (cpu, memory, disk, load) the min/avg/max of the samples in each bucket
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthHistoryResponse {
+    // raw, minute, hour or day
+    private String resolution;
+    // Bucket width, 0 for raw samples
+    private long bucketMillis;
+    // Bucket start (or sample time) of every point, epoch millis, oldest first
+    private long[] timestamps;
+    private Map<String, Series> series;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Series {
+        private double[] min;
+        private double[] avg;
+        private double[] max;
+    }
+}
@@ -0,0 +1,40 @@
+package com.admin.hub.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of log search results over a fetched log window
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LogSearchResponse {
+    private String applicationName;
+    private boolean success;
+    private String message;
+    // Id of the indexed log window; pass it back with nextCursor to page through the same lines
+    private String snapshot;
+    private int windowLines;
+    private int totalMatches;
+    private List<Match> matches;
+    // Line to continue from, null when there are no more matches
+    private Integer nextCursor;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Match {
+        // Zero based line number within its stream
+        private int line;
+        // stdout or stderr
+        private String stream;
+        private String level;
+        private String text;
+    }
+}
@@ -0,0 +1,15 @@
+package com.admin.hub.app.event;
+
+/**
+ * Published when the first client subscribes to an SSE stream that had no subscribers,
+ * so the broadcaster can poll immediately instead of waiting for its next (idle) tick.
+ */
+public record SseSubscriberConnectedEvent(Stream stream) {
+
+    public enum Stream {
+        /** /api/deployment/health/stream: deployer health and app statuses */
+        DEPLOYMENT_HEALTH,
+        /** /api/server/health/stream: server health and running services */
+        SERVER_HEALTH
+    }
+}
@@ -1,13 +1,18 @@
 package com.admin.hub.app.security;
 
 import com.admin.hub.app.config.AdminCredentialsProperties;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +20,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final AdminCredentialsProperties adminCredentials;
 
+    // Shared by every request carrying a valid admin token; holds no credentials and is never modified
+    private Authentication adminAuthentication;
+
+    @PostConstruct
+    void init() {
+        UserDetails admin = User.withUsername(adminCredentials.getEmail())
+                .password("")
+                .authorities(List.of())
+                .build();
+        adminAuthentication = UsernamePasswordAuthenticationToken.authenticated(admin, null, admin.getAuthorities());
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         if (username.equals(adminCredentials.getEmail())) {
@@ -26,5 +43,11 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         throw new UsernameNotFoundException("User not found with username: " + username);
     }
-}
 
+    /**
+     * Authentication for the subject of a verified token, or null if it is not the configured admin
+     */
+    public Authentication authenticationFor(String username) {
+        return username.equals(adminCredentials.getEmail()) ? adminAuthentication : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.admin.hub.app.security;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Lets a Prometheus server scrape /actuator/prometheus with the static monitoring.metrics.scrape-token instead of
+ * an admin JWT, which expires and can only be obtained by logging in. The token authenticates that one route only.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrometheusScrapeFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher SCRAPE_ROUTE = PathPatternRequestMatcher.withDefaults().matcher("/actuator/prometheus");
+    private static final Authentication SCRAPER = UsernamePasswordAuthenticationToken.authenticated(
+            "prometheus", null, List.of(new SimpleGrantedAuthority("ROLE_METRICS_SCRAPER")));
+
+    private final MonitoringProperties monitoringProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return monitoringProperties.getMetrics().getScrapeToken().isEmpty() || !SCRAPE_ROUTE.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && matches(authorizationHeader.substring(7))) {
+            SecurityContextHolder.getContext().setAuthentication(SCRAPER);
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Constant time, so the token can not be guessed from response times
+    private boolean matches(String token) {
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                monitoringProperties.getMetrics().getScrapeToken().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.admin.hub.app.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,7 +22,13 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // Open API routes, the JWT filter skips them
+    static final String[] PUBLIC_API_PATHS = {"/api/auth/**"};
+    // Routes that require or use (health details) an authenticated principal; the JWT filter only runs on these
+    static final String[] TOKEN_PATHS = {"/api/**", "/actuator/**"};
+
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final PrometheusScrapeFilter prometheusScrapeFilter;
     private final CustomUserDetailsService userDetailsService;
 
     @Bean
@@ -30,15 +37,21 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configure(http))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**").permitAll()
+                        // Deferred results are re-dispatched after the request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(PUBLIC_API_PATHS).permitAll()
                         .requestMatchers("/api/**").authenticated()
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        // Admin JWT, or monitoring.metrics.scrape-token for /actuator/prometheus (PrometheusScrapeFilter)
+                        .requestMatchers("/actuator/**").authenticated()
                         .anyRequest().permitAll()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(prometheusScrapeFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,128 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.dto.ApplicationConfiguration;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Probes the application URLs of all configured apps in parallel.
+ * At most monitoring.probe.max-concurrency probes are in flight at once and every probe is bounded by
+ * monitoring.probe.timeout, so one slow application can never hold up the others.
+ * Every probe is recorded in the app.probe.duration histogram, tagged by application and status.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppLivenessProbe {
+
+    public enum ProbeStatus {
+        UP, DOWN, TIMEOUT;
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final MonitoringProperties monitoringProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> probeTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Probe every application that has an application URL configured
+     */
+    public CompletableFuture<Map<String, ProbeStatus>> probeAll(Collection<ApplicationConfiguration> applications) {
+        Queue<ApplicationConfiguration> pending = new ConcurrentLinkedQueue<>();
+        for (ApplicationConfiguration app : applications) {
+            if (app.getName() != null && app.getApplicationUrl() != null && !app.getApplicationUrl().isEmpty()) {
+                pending.add(app);
+            }
+        }
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        Map<String, ProbeStatus> results = new ConcurrentHashMap<>();
+        int lanes = Math.min(Math.max(1, monitoringProperties.getProbe().getMaxConcurrency()), pending.size());
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            running[i] = runLane(pending, results);
+        }
+        return CompletableFuture.allOf(running).thenApply(ignored -> new TreeMap<>(results));
+    }
+
+    /**
+     * Probe a single application URL
+     */
+    public CompletableFuture<ProbeStatus> probe(String applicationName, String url) {
+        Duration timeout = monitoringProperties.getProbe().getTimeout();
+        long start = System.nanoTime();
+        CompletableFuture<HttpStatusCode> call = deployerAsyncClient.ping(url, timeout);
+
+        CompletableFuture<ProbeStatus> result = call
+                .thenApply(status -> status.is2xxSuccessful() ? ProbeStatus.UP : ProbeStatus.DOWN)
+                .exceptionally(ex -> isTimeout(ex) ? ProbeStatus.TIMEOUT : ProbeStatus.DOWN)
+                .completeOnTimeout(ProbeStatus.TIMEOUT, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        return result.whenComplete((status, ex) -> {
+            // Release the connection of a probe that missed its deadline
+            call.cancel(true);
+            if (status != null) {
+                probeTimer(applicationName, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            log.debug("Application {} probe status: {}", applicationName, status);
+        });
+    }
+
+    private Timer probeTimer(String applicationName, ProbeStatus status) {
+        return probeTimers.computeIfAbsent(applicationName + ' ' + status.value(), key -> Timer.builder("app.probe.duration")
+                .description("Time taken by an application liveness probe")
+                .tag("application", applicationName)
+                .tag("status", status.value())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry));
+    }
+
+    private CompletableFuture<Void> runLane(Queue<ApplicationConfiguration> pending, Map<String, ProbeStatus> results) {
+        ApplicationConfiguration app = pending.poll();
+        if (app == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return probe(app.getName(), app.getApplicationUrl())
+                .thenCompose(status -> {
+                    results.put(app.getName(), status);
+                    return runLane(pending, results);
+                });
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
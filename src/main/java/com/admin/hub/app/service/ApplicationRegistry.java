@@ -0,0 +1,229 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerAsyncClient.CallType;
+import com.admin.hub.app.client.DeployerUnavailableException;
+import com.admin.hub.app.config.DeployerProperties;
+import com.admin.hub.app.dto.ApplicationConfiguration;
+import com.admin.hub.app.dto.ConfigurationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory registry of the applications configured on the deployer.
+ * The configuration is cached for deployer.configuration-ttl and then revalidated: with If-None-Match when the
+ * deployer sent an ETag, otherwise by comparing a hash of the body so an unchanged configuration is not rebuilt.
+ * Successful checkout/deploy actions invalidate the cache so the next read revalidates immediately.
+ * If revalidation fails (e.g. the deployer is down) the last known configuration keeps being served.
+ * Concurrent revalidations share one non-blocking fetch; the blocking lookups wait for it. A fetch that was sent
+ * before the latest invalidation is still served, but stays expired so the next read revalidates again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationRegistry {
+
+    private static final String CONFIGURATION_ENDPOINT = "/api/v1/configuration";
+
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final DeployerProperties deployerProperties;
+    private final ObjectMapper objectMapper;
+
+    // snapshot and generation are written under this; generation counts invalidations
+    private volatile Snapshot snapshot;
+    private volatile long generation;
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    /**
+     * All configured applications
+     */
+    public List<ApplicationConfiguration> getApplications() {
+        return join(getApplicationsAsync());
+    }
+
+    /**
+     * All configured applications without blocking the calling thread
+     */
+    public CompletableFuture<List<ApplicationConfiguration>> getApplicationsAsync() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return CompletableFuture.completedFuture(current.applications());
+        }
+        return refreshAsync().thenApply(Snapshot::applications);
+    }
+
+    /**
+     * Look up a single application by name
+     */
+    public Optional<ApplicationConfiguration> find(String applicationName) {
+        return join(findAsync(applicationName));
+    }
+
+    /**
+     * Look up a single application by name without blocking the calling thread
+     */
+    public CompletableFuture<Optional<ApplicationConfiguration>> findAsync(String applicationName) {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(current.byName().get(applicationName)));
+        }
+        return refreshAsync().thenApply(s -> Optional.ofNullable(s.byName().get(applicationName)));
+    }
+
+    /**
+     * Force revalidation on the next read, e.g. after a checkout or deploy changed the configuration
+     */
+    public synchronized void invalidate() {
+        generation++;
+        Snapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.expired();
+            log.info("Application configuration cache invalidated");
+        }
+    }
+
+    private CompletableFuture<Snapshot> refreshAsync() {
+        CompletableFuture<Snapshot> pending = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = inFlight.compareAndExchange(null, pending);
+        if (existing != null) {
+            // Another caller is already revalidating, share its result
+            return existing;
+        }
+
+        long requestedGeneration = generation;
+        Snapshot previous = snapshot;
+        log.info("Fetching applications from: {}{}", deployerProperties.getBaseUrl(), CONFIGURATION_ENDPOINT);
+        // Hashing and parsing run on the application task executor the client completes on, not on its I/O threads
+        deployerAsyncClient.exchange(HttpMethod.GET, CONFIGURATION_ENDPOINT, conditionalHeaders(previous), byte[].class, CallType.READ)
+                .thenApply(response -> apply(previous, response))
+                .whenComplete((updated, ex) -> {
+                    // Publish before releasing inFlight, so no caller sees neither a fresh snapshot nor a running fetch
+                    if (ex != null && previous != null) {
+                        log.warn("Error refreshing applications configuration, keeping last known configuration: {}", ex.getMessage());
+                        publish(previous.renewed(System.nanoTime()), requestedGeneration);
+                        inFlight.set(null);
+                        pending.complete(previous);
+                    } else if (ex != null) {
+                        inFlight.set(null);
+                        if (ex.getCause() instanceof DeployerUnavailableException || ex instanceof DeployerUnavailableException) {
+                            log.warn("Applications configuration not fetched: {}", ex.getMessage());
+                        } else {
+                            log.error("Error fetching applications configuration", ex);
+                        }
+                        pending.completeExceptionally(new IllegalStateException(
+                                "Failed to fetch applications from deployer service: " + ex.getMessage(), ex));
+                    } else {
+                        publish(updated, requestedGeneration);
+                        inFlight.set(null);
+                        pending.complete(updated);
+                    }
+                });
+        return pending;
+    }
+
+    /**
+     * Store a fetched snapshot; one requested before the latest invalidate() is kept expired
+     */
+    private synchronized void publish(Snapshot updated, long requestedGeneration) {
+        snapshot = generation == requestedGeneration ? updated : updated.expired();
+    }
+
+    private HttpHeaders conditionalHeaders(Snapshot previous) {
+        HttpHeaders headers = new HttpHeaders();
+        if (previous != null && previous.etag() != null) {
+            headers.setIfNoneMatch(previous.etag());
+        }
+        return headers;
+    }
+
+    private Snapshot apply(Snapshot previous, ResponseEntity<byte[]> response) {
+        long now = System.nanoTime();
+        if (previous != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            log.debug("Application configuration not modified (ETag {})", previous.etag());
+            return previous.renewed(now);
+        }
+
+        byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+        byte[] hash = sha256(body);
+        String etag = response.getHeaders().getETag();
+        if (previous != null && Arrays.equals(previous.contentHash(), hash)) {
+            log.debug("Application configuration unchanged (content hash)");
+            return new Snapshot(previous.applications(), previous.byName(), etag, hash, now, false);
+        }
+
+        ConfigurationResponse configuration = body.length > 0
+                ? objectMapper.readValue(body, ConfigurationResponse.class)
+                : null;
+        Map<String, ApplicationConfiguration> byName = new LinkedHashMap<>();
+        if (configuration != null) {
+            Map<String, ApplicationConfiguration> appsMap = configuration.getApplicationsMap();
+            if (appsMap != null) {
+                byName.putAll(appsMap);
+            }
+        }
+        log.info("Application configuration loaded: {} applications", byName.size());
+        return new Snapshot(List.copyOf(byName.values()), Map.copyOf(byName), etag, hash, now, false);
+    }
+
+    /**
+     * Wait for a lookup, rethrowing its failure (IllegalStateException when nothing could be fetched) unwrapped
+     */
+    private static <T> T join(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && !current.invalidated()
+                && System.nanoTime() - current.fetchedAt() < deployerProperties.getConfigurationTtl().toNanos();
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Snapshot(
+            List<ApplicationConfiguration> applications,
+            Map<String, ApplicationConfiguration> byName,
+            String etag,
+            byte[] contentHash,
+            long fetchedAt,
+            boolean invalidated) {
+
+        Snapshot renewed(long now) {
+            return new Snapshot(applications, byName, etag, contentHash, now, false);
+        }
+
+        Snapshot expired() {
+            return new Snapshot(applications, byName, etag, contentHash, fetchedAt, true);
+        }
+    }
+}
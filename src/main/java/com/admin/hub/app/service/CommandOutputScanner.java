@@ -0,0 +1,259 @@
+package com.admin.hub.app.service;
+
+/**
+ * Cursor over the text output of shell commands (vmstat, free, df, uptime, systemctl).
+ * Walks lines and whitespace separated tokens by index instead of splitting, and reads numbers and sizes straight
+ * from the characters, so parsing allocates nothing except the strings the caller keeps ({@link #token()},
+ * {@link #rest()}). Not thread safe, use one scanner per parse.
+ */
+final class CommandOutputScanner {
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final String text;
+    private int lineStart;
+    private int lineEnd;
+    private int nextLineStart;
+    private int cursor;
+    private int tokenStart;
+    private int tokenEnd;
+
+    CommandOutputScanner(String text) {
+        this.text = text != null ? text : "";
+    }
+
+    /**
+     * Move to the next line (without its line terminator); false at the end of the text
+     */
+    boolean nextLine() {
+        if (nextLineStart > text.length()) {
+            return false;
+        }
+        lineStart = nextLineStart;
+        int newline = text.indexOf('\n', lineStart);
+        lineEnd = newline < 0 ? text.length() : newline;
+        nextLineStart = lineEnd + 1;
+        if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        cursor = lineStart;
+        tokenStart = tokenEnd = lineStart;
+        return true;
+    }
+
+    /**
+     * Go back to the first token of the current line
+     */
+    void rewindLine() {
+        cursor = lineStart;
+    }
+
+    boolean lineIsEmpty() {
+        return lineStart == lineEnd;
+    }
+
+    boolean lineStartsWith(String prefix) {
+        return lineEnd - lineStart >= prefix.length() && text.startsWith(prefix, lineStart);
+    }
+
+    boolean lineContains(String part) {
+        int index = text.indexOf(part, lineStart);
+        return index >= 0 && index + part.length() <= lineEnd;
+    }
+
+    /**
+     * Move to the next token of the current line; false when there is none left
+     */
+    boolean nextToken() {
+        while (cursor < lineEnd && isWhitespace(text.charAt(cursor))) {
+            cursor++;
+        }
+        if (cursor == lineEnd) {
+            return false;
+        }
+        tokenStart = cursor;
+        while (cursor < lineEnd && !isWhitespace(text.charAt(cursor))) {
+            cursor++;
+        }
+        tokenEnd = cursor;
+        return true;
+    }
+
+    /**
+     * Skip count tokens; false if the line has fewer
+     */
+    boolean skipTokens(int count) {
+        for (int i = 0; i < count; i++) {
+            if (!nextToken()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of tokens on the current line, the cursor does not move
+     */
+    int tokenCount() {
+        int count = 0;
+        boolean inToken = false;
+        for (int i = lineStart; i < lineEnd; i++) {
+            boolean whitespace = isWhitespace(text.charAt(i));
+            if (!whitespace && !inToken) {
+                count++;
+            }
+            inToken = !whitespace;
+        }
+        return count;
+    }
+
+    boolean tokenEquals(String value) {
+        return tokenEnd - tokenStart == value.length() && text.startsWith(value, tokenStart);
+    }
+
+    boolean tokenStartsWith(String prefix) {
+        return tokenEnd - tokenStart >= prefix.length() && text.startsWith(prefix, tokenStart);
+    }
+
+    boolean tokenEndsWith(char c) {
+        return tokenEnd > tokenStart && text.charAt(tokenEnd - 1) == c;
+    }
+
+    boolean tokenContains(String part) {
+        int index = text.indexOf(part, tokenStart);
+        return index >= 0 && index + part.length() <= tokenEnd;
+    }
+
+    int tokenStart() {
+        return tokenStart;
+    }
+
+    int tokenEnd() {
+        return tokenEnd;
+    }
+
+    String token() {
+        return text.substring(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Text between two positions of the current line, trimmed
+     */
+    String slice(int start, int end) {
+        while (start < end && isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     * The remaining tokens of the line joined by single spaces; the line is consumed
+     */
+    String rest() {
+        if (!nextToken()) {
+            return "";
+        }
+        int start = tokenStart;
+        int end = tokenEnd;
+        boolean singleSpaced = true;
+        while (nextToken()) {
+            singleSpaced &= tokenStart == end + 1 && text.charAt(end) == ' ';
+            end = tokenEnd;
+        }
+        if (singleSpaced) {
+            return text.substring(start, end);
+        }
+        StringBuilder joined = new StringBuilder(end - start);
+        cursor = start;
+        while (nextToken()) {
+            if (!joined.isEmpty()) {
+                joined.append(' ');
+            }
+            joined.append(text, tokenStart, tokenEnd);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Whether the token starts with a digit
+     */
+    boolean tokenIsNumeric() {
+        return tokenEnd > tokenStart && isDigit(text.charAt(tokenStart));
+    }
+
+    /**
+     * The decimal number at the start of the token ("12", "7.8" of "7.8Gi", "0.08" of "0.08,"); NaN if there is none
+     */
+    double tokenAsNumber() {
+        return number(tokenStart, tokenEnd);
+    }
+
+    /**
+     * Size with an optional K/M/G/T/P unit as printed by free -h and df -h ("7.8Gi", "157G", "174Mi", "512K",
+     * "1.5TB"); units are powers of 1024, a plain number is bytes. NaN if the token has no number.
+     */
+    double tokenAsSize() {
+        int numberEnd = tokenStart;
+        while (numberEnd < tokenEnd && (isDigit(text.charAt(numberEnd)) || text.charAt(numberEnd) == '.')) {
+            numberEnd++;
+        }
+        double value = number(tokenStart, numberEnd);
+        if (numberEnd == tokenEnd || Double.isNaN(value)) {
+            return value;
+        }
+        return switch (text.charAt(numberEnd)) {
+            case 'K', 'k' -> value * 1024;
+            case 'M' -> value * 1024 * 1024;
+            case 'G' -> value * 1024 * 1024 * 1024;
+            case 'T' -> value * 1024 * 1024 * 1024 * 1024;
+            case 'P' -> value * 1024 * 1024 * 1024 * 1024 * 1024;
+            default -> value;
+        };
+    }
+
+    private double number(int start, int end) {
+        long mantissa = 0;
+        int digits = 0;
+        // Integer digits beyond long precision
+        int dropped = 0;
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (digits == 18) {
+                    dropped += decimals < 0 ? 1 : 0;
+                    continue;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (dropped > 0) {
+            return mantissa * Math.pow(10, dropped);
+        }
+        // Both operands are exact, so the quotient is correctly rounded like Double.parseDouble
+        return decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f' || c == '\u000B';
+    }
+}
@@ -1,10 +1,16 @@
 package com.admin.hub.app.service;
 
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerAsyncClient.CallType;
+import com.admin.hub.app.client.DeployerReadCache;
+import com.admin.hub.app.client.DeployerUnavailableException;
+import com.admin.hub.app.client.FutureCancellation;
 import com.admin.hub.app.config.DeployerProperties;
 import com.admin.hub.app.dto.ApplicationConfiguration;
-import com.admin.hub.app.dto.ConfigurationResponse;
 import com.admin.hub.app.dto.DeploymentResponse;
+import com.admin.hub.app.dto.LogsData;
 import com.admin.hub.app.dto.LogsResponse;
+import com.admin.hub.app.service.AppLivenessProbe.ProbeStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
@@ -12,291 +18,320 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DeploymentService {
 
+    private static final String DEPLOYER_HEALTH_KEY = "deployer-health";
+
     private final RestTemplate restTemplate;
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final DeployerReadCache deployerReadCache;
+    private final AppLivenessProbe appLivenessProbe;
+    private final ApplicationRegistry applicationRegistry;
+    private final LogBufferService logBufferService;
     private final DeployerProperties deployerProperties;
 
     /**
      * Get configuration and available applications
      */
     public List<ApplicationConfiguration> getApplications() {
-        try {
-            String url = deployerProperties.getBaseUrl() + "/api/v1/configuration";
-            HttpEntity<String> entity = createRequestEntity();
-
-            log.info("Fetching applications from: {}", url);
-            ResponseEntity<ConfigurationResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, ConfigurationResponse.class
-            );
-
-            if (response.getBody() != null) {
-                Map<String, ApplicationConfiguration> appsMap = response.getBody().getApplicationsMap();
-                if (appsMap != null && !appsMap.isEmpty()) {
-                    return new ArrayList<>(appsMap.values());
-                }
-            }
-            return new ArrayList<>();
-        } catch (RestClientException e) {
-            log.error("Error fetching applications configuration", e);
-            throw new IllegalStateException("Failed to fetch applications from deployer service: " + e.getMessage(), e);
-        }
+        return applicationRegistry.getApplications();
+    }
+
+    /**
+     * Get configuration and available applications without blocking the calling thread
+     */
+    public CompletableFuture<List<ApplicationConfiguration>> getApplicationsAsync() {
+        return applicationRegistry.getApplicationsAsync();
     }
 
     /**
      * Checkout/clone or update repository
      */
-    public DeploymentResponse checkout(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> checkoutAsync(String applicationName) {
+        return invalidateOnSuccess(executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/repository/checkout/" + applicationName,
                 HttpMethod.POST,
-                "checkout"
-        );
+                "checkout",
+                CallType.ACTION
+        ));
     }
 
     /**
      * Build the application
      */
-    public DeploymentResponse build(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> buildAsync(String applicationName) {
+        return executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/build/application/" + applicationName,
                 HttpMethod.POST,
-                "build"
+                "build",
+                CallType.ACTION
         );
     }
 
     /**
      * Verify the build artifact
      */
-    public DeploymentResponse verify(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> verifyAsync(String applicationName) {
+        return executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/artifact/verify/" + applicationName,
                 HttpMethod.POST,
-                "verify"
+                "verify",
+                CallType.ACTION
         );
     }
 
     /**
      * Deploy the artifact
      */
-    public DeploymentResponse deploy(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> deployAsync(String applicationName) {
+        return invalidateOnSuccess(executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/deployment/deploy/" + applicationName,
                 HttpMethod.POST,
-                "deploy"
-        );
+                "deploy",
+                CallType.ACTION
+        ));
     }
 
     /**
      * Restart the application service
      */
-    public DeploymentResponse restart(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> restartAsync(String applicationName) {
+        return executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/application/restart/" + applicationName,
                 HttpMethod.POST,
-                "restart"
+                "restart",
+                CallType.ACTION
         );
     }
 
     /**
      * Stop the application service
      */
-    public DeploymentResponse stop(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> stopAsync(String applicationName) {
+        return executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/application/stop/" + applicationName,
                 HttpMethod.POST,
-                "stop"
+                "stop",
+                CallType.ACTION
         );
     }
 
     /**
      * Get application status
      */
-    public DeploymentResponse getStatus(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> getStatusAsync(String applicationName) {
+        return executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/application/status/" + applicationName,
                 HttpMethod.GET,
-                "status"
+                "status",
+                CallType.READ
         );
     }
 
     /**
-     * Get application logs
+     * Copy the deployer's logs response (JSON shaped like {@link LogsResponse}) to the output as it arrives,
+     * without parsing it. Memory use is one copy buffer no matter how large the logs are.
      */
-    public DeploymentResponse getLogs(String applicationName, Integer lines) {
-        try {
-            String endpoint = "/api/v1/application/logs/" + applicationName;
-            if (lines != null && lines > 0) {
-                endpoint += "?lines=" + Math.min(lines, 10000);
-            }
-
-            String url = deployerProperties.getBaseUrl() + endpoint;
-            HttpEntity<String> entity = createRequestEntity();
-
-            log.info("Fetching logs for {} from: {}", applicationName, url);
-            ResponseEntity<LogsResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, LogsResponse.class
-            );
+    public void streamLogs(String applicationName, Integer lines, OutputStream output) {
+        String url = deployerProperties.getBaseUrl() + logsEndpoint(applicationName, lines);
+        HttpHeaders headers = createRequestEntity().getHeaders();
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                LogsResponse logsResponse = response.getBody();
-                String logsContent = logsResponse.getData() != null
-                        ? logsResponse.getData().getCombinedLogs()
-                        : "No logs available";
+        log.info("Streaming logs for {} from: {}", applicationName, url);
+        restTemplate.execute(url, HttpMethod.GET,
+                request -> request.getHeaders().putAll(headers),
+                response -> {
+                    StreamUtils.copy(response.getBody(), output);
+                    return null;
+                });
+    }
 
-                return DeploymentResponse.builder()
+    /**
+     * Get application logs from the in-memory log buffer, which only asks the deployer for new lines
+     */
+    public CompletableFuture<DeploymentResponse> getLogsAsync(String applicationName, Integer lines) {
+        CompletableFuture<LogsData> logs = logBufferService.getLogs(applicationName, lines);
+        return FutureCancellation.linked(logs
+                .thenApply(data -> DeploymentResponse.builder()
                         .applicationName(applicationName)
                         .action("logs")
-                        .success(logsResponse.isSuccess())
+                        .success(true)
                         .message("Logs retrieved successfully")
-                        .logs(logsContent)
-                        .data(logsResponse.getData())
-                        .build();
-            } else {
-                return DeploymentResponse.builder()
-                        .applicationName(applicationName)
-                        .action("logs")
-                        .success(false)
-                        .message("Failed to fetch logs with status: " + response.getStatusCode())
-                        .build();
-            }
-        } catch (RestClientException e) {
-            log.error("Error fetching logs for {}: {}", applicationName, e.getMessage(), e);
-            return DeploymentResponse.builder()
-                    .applicationName(applicationName)
-                    .action("logs")
-                    .success(false)
-                    .message("Error: " + e.getMessage())
-                    .build();
-        }
+                        .logs(data.getCombinedLogs())
+                        .data(data)
+                        .build())
+                .exceptionally(ex -> logsError(applicationName, unwrap(ex))), logs);
     }
 
     /**
      * Full deployment workflow: checkout → build → verify → deploy → restart → status
      */
-    public DeploymentResponse fullDeploy(String applicationName) {
-        return executeDeploymentAction(
+    public CompletableFuture<DeploymentResponse> fullDeployAsync(String applicationName) {
+        return invalidateOnSuccess(executeDeploymentActionAsync(
                 applicationName,
                 "/api/v1/deployment/workflow/full-deploy/" + applicationName,
                 HttpMethod.POST,
-                "full-deploy"
-        );
+                "full-deploy",
+                CallType.ACTION
+        ));
     }
 
     /**
      * Health check
      */
     public boolean healthCheck() {
-        try {
-            String url = deployerProperties.getBaseUrl() + "/health";
-            HttpEntity<String> entity = createRequestEntity();
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, String.class
-            );
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (RestClientException e) {
-            log.error("Health check failed", e);
-            return false;
-        }
+        return deployerHealth(true).join();
     }
 
     /**
-     * Check if application is live by testing the application URL
+     * Health check without blocking the calling thread. May return the last known state while a refresh runs.
      */
-    public boolean checkAppLiveStatus(String applicationName) {
-        try {
-            // Get application configuration to find the URL
-            List<ApplicationConfiguration> apps = getApplications();
-            ApplicationConfiguration app = apps.stream()
-                    .filter(a -> a.getName().equals(applicationName))
-                    .findFirst()
-                    .orElse(null);
-
-            if (app == null || app.getApplicationUrl() == null || app.getApplicationUrl().isEmpty()) {
-                log.warn("Application {} not found or has no URL configured", applicationName);
-                return false;
-            }
+    public CompletableFuture<Boolean> healthCheckAsync() {
+        return deployerHealth(false);
+    }
 
-            String url = app.getApplicationUrl();
-            log.info("Checking live status for {} at: {}", applicationName, url);
+    private CompletableFuture<Boolean> deployerHealth(boolean requireFresh) {
+        Supplier<CompletableFuture<Boolean>> loader = () ->
+                deployerAsyncClient.exchange(HttpMethod.GET, "/health", String.class, CallType.READ)
+                        .thenApply(response -> response.getStatusCode().is2xxSuccessful());
+        CompletableFuture<Boolean> result = requireFresh
+                ? deployerReadCache.getFresh(DEPLOYER_HEALTH_KEY, loader)
+                : deployerReadCache.get(DEPLOYER_HEALTH_KEY, loader);
+        return result.exceptionally(ex -> {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof DeployerUnavailableException) {
+                log.debug("Health check skipped: {}", cause.getMessage());
+            } else {
+                log.error("Health check failed", cause);
+            }
+            return false;
+        });
+    }
 
-            // Make a simple GET request to the application URL
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            boolean isLive = response.getStatusCode().is2xxSuccessful();
+    /**
+     * Check if application is live by probing the application URL
+     */
+    public CompletableFuture<Boolean> checkAppLiveStatusAsync(String applicationName) {
+        return applicationRegistry.findAsync(applicationName)
+                .thenCompose(found -> {
+                    ApplicationConfiguration app = found.orElse(null);
 
-            log.info("Application {} live status: {}", applicationName, isLive);
-            return isLive;
+                    if (app == null || app.getApplicationUrl() == null || app.getApplicationUrl().isEmpty()) {
+                        log.warn("Application {} not found or has no URL configured", applicationName);
+                        return CompletableFuture.completedFuture(false);
+                    }
 
-        } catch (RestClientException e) {
-            log.warn("Failed to check live status for {}: {}", applicationName, e.getMessage());
-            return false;
-        } catch (Exception e) {
-            log.error("Unexpected error checking live status for {}", applicationName, e);
-            return false;
-        }
+                    log.info("Checking live status for {} at: {}", applicationName, app.getApplicationUrl());
+                    return appLivenessProbe.probe(applicationName, app.getApplicationUrl())
+                            .thenApply(status -> {
+                                log.info("Application {} live status: {}", applicationName, status.value());
+                                return status == ProbeStatus.UP;
+                            });
+                })
+                .exceptionally(ex -> {
+                    log.warn("Failed to check live status for {}: {}", applicationName, unwrap(ex).getMessage());
+                    return false;
+                });
     }
 
     /**
-     * Generic method to execute deployment actions
+     * Generic method to execute deployment actions without blocking the calling thread.
+     * Cancelling the returned future aborts the deployer call.
      */
-    private DeploymentResponse executeDeploymentAction(
+    private CompletableFuture<DeploymentResponse> executeDeploymentActionAsync(
             String applicationName,
             String endpoint,
             HttpMethod method,
-            String action) {
-        try {
-            String url = deployerProperties.getBaseUrl() + endpoint;
-            HttpEntity<String> entity = createRequestEntity();
-
-            log.info("Executing {} action for {} at: {}", action, applicationName, url);
-            ResponseEntity<Object> response = restTemplate.exchange(
-                    url, method, entity, Object.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return DeploymentResponse.builder()
-                        .applicationName(applicationName)
-                        .action(action)
-                        .success(true)
-                        .message("Action completed successfully")
-                        .data(response.getBody())
-                        .build();
-            } else {
-                return DeploymentResponse.builder()
-                        .applicationName(applicationName)
-                        .action(action)
-                        .success(false)
-                        .message("Action failed with status: " + response.getStatusCode())
-                        .build();
+            String action,
+            CallType callType) {
+        log.info("Executing {} action for {} at: {}{}", action, applicationName, deployerProperties.getBaseUrl(), endpoint);
+        CompletableFuture<ResponseEntity<Object>> exchange = deployerAsyncClient.exchange(method, endpoint, Object.class, callType);
+        return FutureCancellation.linked(exchange
+                .thenApply(response -> toActionResponse(applicationName, action, response))
+                .exceptionally(ex -> actionError(applicationName, action, unwrap(ex))), exchange);
+    }
+
+    /**
+     * Checkout and deploy can change the deployer configuration, so force the registry to revalidate
+     */
+    private CompletableFuture<DeploymentResponse> invalidateOnSuccess(CompletableFuture<DeploymentResponse> action) {
+        return FutureCancellation.linked(action.thenApply(response -> {
+            if (response.isSuccess()) {
+                applicationRegistry.invalidate();
             }
-        } catch (RestClientException e) {
-            log.error("Error executing {} for {}: {}", action, applicationName, e.getMessage(), e);
+            return response;
+        }), action);
+    }
+
+    private String logsEndpoint(String applicationName, Integer lines) {
+        String endpoint = "/api/v1/application/logs/" + applicationName;
+        if (lines != null && lines > 0) {
+            endpoint += "?lines=" + Math.min(lines, 10000);
+        }
+        return endpoint;
+    }
+
+    private DeploymentResponse logsError(String applicationName, Throwable e) {
+        log.error("Error fetching logs for {}: {}", applicationName, e.getMessage(), e);
+        return DeploymentResponse.builder()
+                .applicationName(applicationName)
+                .action("logs")
+                .success(false)
+                .message("Error: " + e.getMessage())
+                .build();
+    }
+
+    private DeploymentResponse toActionResponse(String applicationName, String action, ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return DeploymentResponse.builder()
+                    .applicationName(applicationName)
+                    .action(action)
+                    .success(true)
+                    .message("Action completed successfully")
+                    .data(response.getBody())
+                    .build();
+        } else {
             return DeploymentResponse.builder()
                     .applicationName(applicationName)
                     .action(action)
                     .success(false)
-                    .message("Error: " + e.getMessage())
+                    .message("Action failed with status: " + response.getStatusCode())
                     .build();
         }
     }
 
+    private DeploymentResponse actionError(String applicationName, String action, Throwable e) {
+        log.error("Error executing {} for {}: {}", action, applicationName, e.getMessage(), e);
+        return DeploymentResponse.builder()
+                .applicationName(applicationName)
+                .action(action)
+                .success(false)
+                .message("Error: " + e.getMessage())
+                .build();
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
     /**
      * Create HTTP headers with API key
      */
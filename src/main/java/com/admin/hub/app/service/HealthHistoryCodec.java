@@ -0,0 +1,213 @@
+package com.admin.hub.app.service;
+
+import java.util.Arrays;
+
+/**
+ * Bit-level compression of health history blocks (Gorilla style).
+ * Timestamps are stored as delta-of-delta, so a steady polling cadence costs one bit per sample. Values are
+ * rounded to two decimals and XORed with the previous value of the same series: an unchanged value costs one bit,
+ * a changed one only its meaningful bits.
+ */
+final class HealthHistoryCodec {
+
+    private HealthHistoryCodec() {
+    }
+
+    /**
+     * Values are kept to two decimals (percentages, load average), which also makes repeated values bit-identical
+     */
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Delta-of-delta encoder for increasing timestamps
+     */
+    static final class TimestampEncoder {
+        private long previous;
+        private long previousDelta;
+        private boolean started;
+
+        void write(BitWriter out, long timestamp) {
+            if (!started) {
+                out.write(timestamp, 64);
+                previous = timestamp;
+                started = true;
+                return;
+            }
+            long delta = timestamp - previous;
+            long zigzag = zigzag(delta - previousDelta);
+            if (zigzag == 0) {
+                out.write(0b0, 1);
+            } else if (zigzag < (1L << 7)) {
+                out.write(0b10, 2);
+                out.write(zigzag, 7);
+            } else if (zigzag < (1L << 9)) {
+                out.write(0b110, 3);
+                out.write(zigzag, 9);
+            } else if (zigzag < (1L << 12)) {
+                out.write(0b1110, 4);
+                out.write(zigzag, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(zigzag, 64);
+            }
+            previous = timestamp;
+            previousDelta = delta;
+        }
+    }
+
+    static final class TimestampDecoder {
+        private long previous;
+        private long previousDelta;
+        private boolean started;
+
+        long read(BitReader in) {
+            if (!started) {
+                previous = in.read(64);
+                started = true;
+                return previous;
+            }
+            long zigzag;
+            if (in.read(1) == 0) {
+                zigzag = 0;
+            } else if (in.read(1) == 0) {
+                zigzag = in.read(7);
+            } else if (in.read(1) == 0) {
+                zigzag = in.read(9);
+            } else if (in.read(1) == 0) {
+                zigzag = in.read(12);
+            } else {
+                zigzag = in.read(64);
+            }
+            previousDelta += unzigzag(zigzag);
+            previous += previousDelta;
+            return previous;
+        }
+    }
+
+    /**
+     * XOR encoder for one series of doubles
+     */
+    static final class ValueEncoder {
+        private long previous;
+        private int previousLeading = -1;
+        private int previousTrailing;
+        private boolean started;
+
+        void write(BitWriter out, double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (!started) {
+                out.write(bits, 64);
+                previous = bits;
+                started = true;
+                return;
+            }
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.write(0b0, 1);
+                return;
+            }
+            int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Fits in the previous window
+                out.write(0b10, 2);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                // 1..64 meaningful bits, stored as 0..63
+                out.write(meaningful - 1, 6);
+                out.write(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    static final class ValueDecoder {
+        private long previous;
+        private int previousLeading;
+        private int previousTrailing;
+        private boolean started;
+
+        double read(BitReader in) {
+            if (!started) {
+                previous = in.read(64);
+                started = true;
+                return Double.longBitsToDouble(previous);
+            }
+            if (in.read(1) == 0) {
+                return Double.longBitsToDouble(previous);
+            }
+            if (in.read(1) == 1) {
+                previousLeading = (int) in.read(5);
+                int meaningful = (int) in.read(6) + 1;
+                previousTrailing = 64 - previousLeading - meaningful;
+            }
+            int meaningful = 64 - previousLeading - previousTrailing;
+            previous ^= in.read(meaningful) << previousTrailing;
+            return Double.longBitsToDouble(previous);
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Appends bits most significant first
+     */
+    static final class BitWriter {
+        private byte[] bytes = new byte[1024];
+        private long bitLength;
+
+        void write(long value, int bits) {
+            while (bits > 0) {
+                int index = (int) (bitLength >>> 3);
+                if (index == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                int free = 8 - (int) (bitLength & 7);
+                int take = Math.min(free, bits);
+                int chunk = (int) ((value >>> (bits - take)) & ((1 << take) - 1));
+                bytes[index] |= (byte) (chunk << (free - take));
+                bitLength += take;
+                bits -= take;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (int) ((bitLength + 7) >>> 3));
+        }
+    }
+
+    static final class BitReader {
+        private final byte[] bytes;
+        private long position;
+
+        BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            while (bits > 0) {
+                int available = 8 - (int) (position & 7);
+                int take = Math.min(available, bits);
+                int chunk = ((bytes[(int) (position >>> 3)] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                position += take;
+                bits -= take;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.service.AppLivenessProbe.ProbeStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Health history on disk, so it survives restarts.
+ * Server health samples and application liveness changes are appended as fixed-size records to a memory-mapped
+ * segment (active.seg, monitoring.history.segment-records records). A full segment is compacted into a
+ * &lt;first timestamp&gt;.hhc block with {@link HealthHistoryCodec} (delta-of-delta timestamps, XOR values), a few
+ * bytes per sample instead of 48, and blocks older than monitoring.history.retention are deleted.
+ * On startup the blocks and the active segment are decoded back into {@link HealthTimeSeries} and the in-memory
+ * liveness history; no deployer call is replayed.
+ * Records reach the page cache as soon as they are written, so a crash of the hub loses nothing, a crash of the
+ * machine at most what the OS had not flushed yet.
+ * Server samples arrive on the deployer client's I/O threads and probe results on the SSE broadcast thread; both
+ * are written on a single history-writer thread, so a segment compaction never stalls the HTTP client or a
+ * broadcast.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HealthHistoryStore {
+
+    private static final int SEGMENT_MAGIC = 0x48485347;   // HHSG
+    private static final int BLOCK_MAGIC = 0x48484243;     // HHBC
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    // timestamp, type, status, app id, padding, 4 values
+    private static final int RECORD_BYTES = 48;
+    private static final byte SERVER_SAMPLE = 1;
+    private static final byte PROBE_RESULT = 2;
+    private static final String ACTIVE_SEGMENT = "active.seg";
+    private static final String APPS_FILE = "apps";
+    private static final String BLOCK_SUFFIX = ".hhc";
+    private static final ProbeStatus[] PROBE_STATUSES = ProbeStatus.values();
+    private static final int METRICS = HealthTimeSeries.Metric.values().length;
+
+    private final HealthTimeSeries healthTimeSeries;
+    private final MonitoringProperties monitoringProperties;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(writerThreadFactory());
+
+    // Everything below is guarded by this
+    private Path directory;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int capacity;
+    private int count;
+    // App id is the line number in the apps file
+    private final List<String> appNames = new ArrayList<>();
+    private final Map<String, Integer> appIds = new HashMap<>();
+    private final Map<String, ArrayDeque<ProbeTransition>> probeHistory = new HashMap<>();
+
+    /**
+     * An application's liveness changed to status at timestamp (epoch millis)
+     */
+    public record ProbeTransition(long timestamp, ProbeStatus status) {
+    }
+
+    @PostConstruct
+    synchronized void open() {
+        MonitoringProperties.History config = monitoringProperties.getHistory();
+        if (config.getDirectory() == null || config.getDirectory().isBlank()) {
+            log.info("Health history is kept in memory only (monitoring.history.directory is not set)");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            directory = Path.of(config.getDirectory());
+            Files.createDirectories(directory);
+            capacity = config.getSegmentRecords();
+            loadApps();
+            mapSegment();
+            int samples = 0;
+            for (Path block : blocks()) {
+                samples += replay(decode(block));
+            }
+            Records active = readSegment(segment, count);
+            if (active.isEmpty() || !Files.exists(directory.resolve(active.first() + BLOCK_SUFFIX))) {
+                samples += replay(active);
+            } else {
+                // Stopped after compacting but before the segment was emptied, the block has it all
+                reset();
+            }
+            if (count == capacity) {
+                compact();
+            }
+            deleteExpired();
+            log.info("Loaded {} health samples from {} in {} ms", samples, directory, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Cannot open health history in {}, keeping it in memory only", config.getDirectory(), e);
+            closeQuietly();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Health history writer did not finish in time, dropping pending samples");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        closeSegment();
+    }
+
+    private synchronized void closeSegment() {
+        if (segment != null) {
+            segment.force();
+        }
+        closeQuietly();
+    }
+
+    /**
+     * Record a server health sample, values indexed by {@link HealthTimeSeries.Metric} ordinal and kept to two
+     * decimals. Returns at once, the sample is written on the history-writer thread.
+     */
+    public void recordServerSample(long timestampMillis, double... values) {
+        try {
+            writer.execute(() -> writeServerSample(timestampMillis, values));
+        } catch (RejectedExecutionException e) {
+            log.debug("Health history is closed, dropping server sample of {}", timestampMillis);
+        }
+    }
+
+    private synchronized void writeServerSample(long timestampMillis, double... values) {
+        double[] rounded = new double[values.length];
+        for (int m = 0; m < values.length; m++) {
+            rounded[m] = HealthHistoryCodec.round(values[m]);
+        }
+        healthTimeSeries.record(timestampMillis, rounded);
+        if (segment != null) {
+            try {
+                append(timestampMillis, SERVER_SAMPLE, (byte) 0, (short) 0, rounded);
+            } catch (IOException | RuntimeException e) {
+                disable(e);
+            }
+        }
+    }
+
+    /**
+     * Record the probe results of all applications; only changes are kept. Returns at once, the results are
+     * written on the history-writer thread.
+     */
+    public void recordProbes(long timestampMillis, Map<String, ProbeStatus> statuses) {
+        try {
+            writer.execute(() -> writeProbes(timestampMillis, statuses));
+        } catch (RejectedExecutionException e) {
+            log.debug("Health history is closed, dropping probe results of {}", timestampMillis);
+        }
+    }
+
+    private synchronized void writeProbes(long timestampMillis, Map<String, ProbeStatus> statuses) {
+        statuses.forEach((name, status) -> {
+            if (status != null && addTransition(name, new ProbeTransition(timestampMillis, status)) && segment != null) {
+                try {
+                    append(timestampMillis, PROBE_RESULT, (byte) status.ordinal(), (short) appId(name));
+                } catch (IOException | RuntimeException e) {
+                    disable(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Liveness changes of the application, oldest first (at most monitoring.history.probe-transitions)
+     */
+    public synchronized List<ProbeTransition> getProbeHistory(String applicationName) {
+        ArrayDeque<ProbeTransition> transitions = probeHistory.get(applicationName);
+        return transitions != null ? List.copyOf(transitions) : List.of();
+    }
+
+    private boolean addTransition(String name, ProbeTransition transition) {
+        ArrayDeque<ProbeTransition> transitions = probeHistory.computeIfAbsent(name, key -> new ArrayDeque<>());
+        ProbeTransition last = transitions.peekLast();
+        if (last != null && (last.status() == transition.status() || last.timestamp() > transition.timestamp())) {
+            return false;
+        }
+        transitions.addLast(transition);
+        if (transitions.size() > monitoringProperties.getHistory().getProbeTransitions()) {
+            transitions.removeFirst();
+        }
+        return true;
+    }
+
+    private void append(long timestamp, byte type, byte status, short appId, double... values) throws IOException {
+        int offset = HEADER_BYTES + count * RECORD_BYTES;
+        segment.putLong(offset, timestamp);
+        segment.put(offset + 8, type);
+        segment.put(offset + 9, status);
+        segment.putShort(offset + 10, appId);
+        for (int m = 0; m < METRICS; m++) {
+            segment.putDouble(offset + 16 + m * 8, m < values.length ? values[m] : 0);
+        }
+        // Count last, a torn record is never visible
+        segment.putInt(8, ++count);
+        if (count == capacity) {
+            compact();
+        }
+    }
+
+    private void disable(Exception e) {
+        log.error("Cannot write health history to {}, keeping it in memory only", directory, e);
+        closeQuietly();
+    }
+
+    // ---- Segment ----
+
+    private void mapSegment() throws IOException {
+        Path path = directory.resolve(ACTIVE_SEGMENT);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_BYTES + (long) capacity * RECORD_BYTES;
+        if (channel.size() >= HEADER_BYTES && channel.size() != size) {
+            // Written with another monitoring.history.segment-records: keep its records as a block and start over
+            MappedByteBuffer previous = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int records = (int) Math.min((channel.size() - HEADER_BYTES) / RECORD_BYTES, Math.max(0, previous.getInt(8)));
+            if (previous.getInt(0) == SEGMENT_MAGIC && previous.getInt(4) == VERSION) {
+                writeBlock(readSegment(previous, records));
+            }
+            channel.truncate(0);
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (segment.getInt(0) != SEGMENT_MAGIC || segment.getInt(4) != VERSION) {
+            segment.putInt(0, SEGMENT_MAGIC);
+            segment.putInt(4, VERSION);
+            segment.putInt(8, 0);
+        }
+        count = Math.min(Math.max(0, segment.getInt(8)), capacity);
+    }
+
+    private static Records readSegment(MappedByteBuffer segment, int count) {
+        Records records = new Records();
+        double[] values = new double[METRICS];
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            long timestamp = segment.getLong(offset);
+            if (segment.get(offset + 8) == SERVER_SAMPLE) {
+                for (int m = 0; m < METRICS; m++) {
+                    values[m] = segment.getDouble(offset + 16 + m * 8);
+                }
+                records.addServer(timestamp, values);
+            } else {
+                records.addProbe(timestamp, segment.getShort(offset + 10), segment.get(offset + 9));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Write the full segment as a compressed block, then empty it. The block is complete on disk before the
+     * segment is emptied; if the hub stops in between, the segment is dropped on the next start.
+     */
+    private void compact() throws IOException {
+        writeBlock(readSegment(segment, count));
+        reset();
+        deleteExpired();
+    }
+
+    private void reset() {
+        count = 0;
+        segment.putInt(8, 0);
+    }
+
+    private void writeBlock(Records records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        Path block = directory.resolve(records.first() + BLOCK_SUFFIX);
+        Path temporary = directory.resolve(records.first() + BLOCK_SUFFIX + ".tmp");
+        byte[] encoded = encode(records);
+        Files.write(temporary, encoded);
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(temporary, block, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Compacted {} health history records into {} ({} bytes)",
+                records.serverCount + records.probeCount, block.getFileName(), encoded.length);
+    }
+
+    // ---- Blocks ----
+
+    private List<Path> blocks() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(BLOCK_SUFFIX))
+                    .sorted((a, b) -> Long.compare(blockStart(a), blockStart(b)))
+                    .toList();
+        }
+    }
+
+    private static long blockStart(Path block) {
+        String name = block.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - BLOCK_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Delete blocks whose records are all older than the retention, that is blocks followed by one starting
+     * before the cutoff
+     */
+    private void deleteExpired() throws IOException {
+        long cutoff = System.currentTimeMillis() - monitoringProperties.getHistory().getRetention().toMillis();
+        List<Path> blocks = blocks();
+        for (int i = 0; i + 1 < blocks.size() && blockStart(blocks.get(i + 1)) <= cutoff; i++) {
+            Files.deleteIfExists(blocks.get(i));
+            log.info("Deleted expired health history block {}", blocks.get(i).getFileName());
+        }
+    }
+
+    static byte[] encode(Records records) throws IOException {
+        HealthHistoryCodec.BitWriter server = new HealthHistoryCodec.BitWriter();
+        HealthHistoryCodec.TimestampEncoder serverTimes = new HealthHistoryCodec.TimestampEncoder();
+        HealthHistoryCodec.ValueEncoder[] values = new HealthHistoryCodec.ValueEncoder[METRICS];
+        for (int m = 0; m < METRICS; m++) {
+            values[m] = new HealthHistoryCodec.ValueEncoder();
+        }
+        for (int i = 0; i < records.serverCount; i++) {
+            serverTimes.write(server, records.serverTimestamps[i]);
+            for (int m = 0; m < METRICS; m++) {
+                values[m].write(server, HealthHistoryCodec.round(records.serverValues[i * METRICS + m]));
+            }
+        }
+
+        HealthHistoryCodec.BitWriter probes = new HealthHistoryCodec.BitWriter();
+        HealthHistoryCodec.TimestampEncoder probeTimes = new HealthHistoryCodec.TimestampEncoder();
+        for (int i = 0; i < records.probeCount; i++) {
+            probeTimes.write(probes, records.probeTimestamps[i]);
+            probes.write(records.probeApps[i], 16);
+            probes.write(records.probeStatuses[i], 2);
+        }
+
+        byte[] serverBytes = server.toByteArray();
+        byte[] probeBytes = probes.toByteArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + serverBytes.length + probeBytes.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(BLOCK_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(records.serverCount);
+            out.writeInt(records.probeCount);
+            out.writeInt(serverBytes.length);
+            out.writeInt(probeBytes.length);
+            out.write(serverBytes);
+            out.write(probeBytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Records decode(Path block) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(block))) {
+            return decode(in);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Skipping unreadable health history block {}: {}", block.getFileName(), e.getMessage());
+            return new Records();
+        }
+    }
+
+    static Records decode(DataInputStream in) throws IOException {
+        if (in.readInt() != BLOCK_MAGIC || in.readInt() != VERSION) {
+            throw new IOException("not a health history block");
+        }
+        int serverCount = in.readInt();
+        int probeCount = in.readInt();
+        int serverLength = in.readInt();
+        int probeLength = in.readInt();
+        byte[] serverBytes = in.readNBytes(serverLength);
+        byte[] probeBytes = in.readNBytes(probeLength);
+
+        Records records = new Records();
+        HealthHistoryCodec.BitReader server = new HealthHistoryCodec.BitReader(serverBytes);
+        HealthHistoryCodec.TimestampDecoder serverTimes = new HealthHistoryCodec.TimestampDecoder();
+        HealthHistoryCodec.ValueDecoder[] values = new HealthHistoryCodec.ValueDecoder[METRICS];
+        for (int m = 0; m < METRICS; m++) {
+            values[m] = new HealthHistoryCodec.ValueDecoder();
+        }
+        double[] sample = new double[METRICS];
+        for (int i = 0; i < serverCount; i++) {
+            long timestamp = serverTimes.read(server);
+            for (int m = 0; m < METRICS; m++) {
+                sample[m] = values[m].read(server);
+            }
+            records.addServer(timestamp, sample);
+        }
+
+        HealthHistoryCodec.BitReader probes = new HealthHistoryCodec.BitReader(probeBytes);
+        HealthHistoryCodec.TimestampDecoder probeTimes = new HealthHistoryCodec.TimestampDecoder();
+        for (int i = 0; i < probeCount; i++) {
+            long timestamp = probeTimes.read(probes);
+            records.addProbe(timestamp, (short) probes.read(16), (byte) probes.read(2));
+        }
+        return records;
+    }
+
+    private int replay(Records records) {
+        double[] sample = new double[METRICS];
+        for (int i = 0; i < records.serverCount; i++) {
+            System.arraycopy(records.serverValues, i * METRICS, sample, 0, METRICS);
+            healthTimeSeries.record(records.serverTimestamps[i], sample);
+        }
+        for (int i = 0; i < records.probeCount; i++) {
+            int appId = records.probeApps[i] & 0xFFFF;
+            int status = records.probeStatuses[i];
+            if (appId < appNames.size() && status < PROBE_STATUSES.length) {
+                addTransition(appNames.get(appId), new ProbeTransition(records.probeTimestamps[i], PROBE_STATUSES[status]));
+            }
+        }
+        return records.serverCount;
+    }
+
+    // ---- Application names ----
+
+    private void loadApps() throws IOException {
+        Path path = directory.resolve(APPS_FILE);
+        if (Files.exists(path)) {
+            for (String name : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                appIds.put(name, appNames.size());
+                appNames.add(name);
+            }
+        }
+    }
+
+    private int appId(String name) throws IOException {
+        Integer id = appIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        Files.writeString(directory.resolve(APPS_FILE), name + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        appIds.put(name, appNames.size());
+        appNames.add(name);
+        return appNames.size() - 1;
+    }
+
+    private static CustomizableThreadFactory writerThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("history-writer-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private void closeQuietly() {
+        segment = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Error closing health history segment", e);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Decoded records of one block or segment, columns in primitive arrays
+     */
+    static final class Records {
+        int serverCount;
+        long[] serverTimestamps = new long[64];
+        double[] serverValues = new double[64 * METRICS];
+        int probeCount;
+        long[] probeTimestamps = new long[16];
+        short[] probeApps = new short[16];
+        byte[] probeStatuses = new byte[16];
+
+        boolean isEmpty() {
+            return serverCount + probeCount == 0;
+        }
+
+        /**
+         * Oldest timestamp, names the block
+         */
+        long first() {
+            return Math.min(serverCount > 0 ? serverTimestamps[0] : Long.MAX_VALUE,
+                    probeCount > 0 ? probeTimestamps[0] : Long.MAX_VALUE);
+        }
+
+        void addServer(long timestamp, double[] values) {
+            if (serverCount == serverTimestamps.length) {
+                serverTimestamps = Arrays.copyOf(serverTimestamps, serverCount * 2);
+                serverValues = Arrays.copyOf(serverValues, serverCount * 2 * METRICS);
+            }
+            serverTimestamps[serverCount] = timestamp;
+            System.arraycopy(values, 0, serverValues, serverCount * METRICS, METRICS);
+            serverCount++;
+        }
+
+        void addProbe(long timestamp, short appId, byte status) {
+            if (probeCount == probeTimestamps.length) {
+                probeTimestamps = Arrays.copyOf(probeTimestamps, probeCount * 2);
+                probeApps = Arrays.copyOf(probeApps, probeCount * 2);
+                probeStatuses = Arrays.copyOf(probeStatuses, probeCount * 2);
+            }
+            probeTimestamps[probeCount] = timestamp;
+            probeApps[probeCount] = appId;
+            probeStatuses[probeCount] = status;
+            probeCount++;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.dto.HealthHistoryResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory history of server health samples (CPU, memory, disk, load average) on fixed-size primitive rings.
+ * Every sample goes to the raw tier and is folded into 1-minute, 1-hour and 1-day min/avg/max buckets, each tier
+ * aggregating the raw samples directly so rollups are exact. All arrays are allocated up front
+ * (monitoring.history.*), memory stays the same however long the hub runs; the oldest entries are overwritten.
+ */
+@Component
+public class HealthTimeSeries {
+
+    public enum Metric {
+        CPU, MEMORY, DISK, LOAD;
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Resolution {
+        RAW(Duration.ZERO), MINUTE(Duration.ofMinutes(1)), HOUR(Duration.ofHours(1)), DAY(Duration.ofDays(1));
+
+        private final long widthMillis;
+
+        Resolution(Duration width) {
+            this.widthMillis = width.toMillis();
+        }
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    // Indexed by Resolution ordinal, guarded by this
+    private final Tier[] tiers;
+    private long firstSample = Long.MAX_VALUE;
+
+    public HealthTimeSeries(MonitoringProperties monitoringProperties) {
+        MonitoringProperties.History config = monitoringProperties.getHistory();
+        tiers = new Tier[]{
+                new Tier(Resolution.RAW, config.getRawSamples()),
+                new Tier(Resolution.MINUTE, config.getMinuteBuckets()),
+                new Tier(Resolution.HOUR, config.getHourBuckets()),
+                new Tier(Resolution.DAY, config.getDayBuckets())
+        };
+    }
+
+    /**
+     * Record one sample; values are indexed by {@link Metric} ordinal. Samples older than the newest one are ignored.
+     */
+    public synchronized void record(long timestampMillis, double... values) {
+        if (values.length != METRICS.length) {
+            throw new IllegalArgumentException("Expected " + METRICS.length + " values, got " + values.length);
+        }
+        firstSample = Math.min(firstSample, timestampMillis);
+        for (Tier tier : tiers) {
+            tier.add(timestampMillis, values);
+        }
+    }
+
+    /**
+     * Points between from and to (inclusive, epoch millis). With a null resolution the finest tier that still
+     * reaches back to {@code from} (or the first sample) and returns at most {@code maxPoints} points is used.
+     */
+    public synchronized HealthHistoryResponse query(long from, long to, Resolution resolution, int maxPoints) {
+        Tier tier = resolution != null ? tiers[resolution.ordinal()] : pick(from, to, maxPoints);
+        return tier.query(from, to, maxPoints);
+    }
+
+    private Tier pick(long from, long to, int maxPoints) {
+        long start = Math.max(from, firstSample);
+        for (Tier tier : tiers) {
+            if (tier.covers(start) && tier.estimatePoints(from, to) <= maxPoints) {
+                return tier;
+            }
+        }
+        return tiers[tiers.length - 1];
+    }
+
+    /**
+     * One ring of buckets. Slot i holds bucket start time, count and per metric min/sum/max at i * METRICS.length + m.
+     * The raw tier has a bucket per sample.
+     */
+    private static final class Tier {
+
+        private final Resolution resolution;
+        private final int capacity;
+        private final long[] starts;
+        private final int[] counts;
+        private final double[] min;
+        private final double[] sum;
+        private final double[] max;
+        // Slot of the newest bucket and number of buckets in use
+        private int head = -1;
+        private int size;
+
+        private Tier(Resolution resolution, int capacity) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            this.starts = new long[capacity];
+            this.counts = new int[capacity];
+            this.min = new double[capacity * METRICS.length];
+            this.sum = new double[capacity * METRICS.length];
+            this.max = new double[capacity * METRICS.length];
+        }
+
+        void add(long timestamp, double[] values) {
+            long start = align(timestamp);
+            if (size > 0 && start < starts[head]) {
+                return;
+            }
+            if (size == 0 || start != starts[head] || resolution == Resolution.RAW) {
+                head = (head + 1) % capacity;
+                size = Math.min(size + 1, capacity);
+                starts[head] = start;
+                counts[head] = 0;
+                int base = head * METRICS.length;
+                Arrays.fill(min, base, base + METRICS.length, Double.POSITIVE_INFINITY);
+                Arrays.fill(sum, base, base + METRICS.length, 0);
+                Arrays.fill(max, base, base + METRICS.length, Double.NEGATIVE_INFINITY);
+            }
+            counts[head]++;
+            int base = head * METRICS.length;
+            for (int m = 0; m < values.length; m++) {
+                double value = values[m];
+                min[base + m] = Math.min(min[base + m], value);
+                sum[base + m] += value;
+                max[base + m] = Math.max(max[base + m], value);
+            }
+        }
+
+        /**
+         * Whether the tier still holds the bucket of the given time (nothing is lost between it and now)
+         */
+        boolean covers(long timestamp) {
+            return size > 0 && starts[slot(0)] <= align(timestamp);
+        }
+
+        private long align(long timestamp) {
+            return resolution.widthMillis == 0 ? timestamp : timestamp - Math.floorMod(timestamp, resolution.widthMillis);
+        }
+
+        int estimatePoints(long from, long to) {
+            if (resolution.widthMillis == 0) {
+                return count(from, to);
+            }
+            return (int) Math.min(Integer.MAX_VALUE, (to - from) / resolution.widthMillis + 1);
+        }
+
+        /**
+         * Slot of the i-th oldest bucket
+         */
+        private int slot(int i) {
+            return Math.floorMod(head - size + 1 + i, capacity);
+        }
+
+        private int first(long from) {
+            // Buckets are in time order, binary search the first one starting at or after from
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[slot(mid)] < from) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int count(long from, long to) {
+            return first(to + 1) - first(from);
+        }
+
+        HealthHistoryResponse query(long from, long to, int maxPoints) {
+            // Include the bucket that contains from
+            int begin = first(align(from));
+            int end = first(to + 1);
+            // Too many points: keep the newest maxPoints
+            begin = Math.max(begin, end - Math.max(1, maxPoints));
+            int points = Math.max(0, end - begin);
+
+            long[] timestamps = new long[points];
+            Map<String, HealthHistoryResponse.Series> series = new LinkedHashMap<>();
+            double[][] mins = new double[METRICS.length][points];
+            double[][] avgs = new double[METRICS.length][points];
+            double[][] maxs = new double[METRICS.length][points];
+            for (int p = 0; p < points; p++) {
+                int slot = slot(begin + p);
+                timestamps[p] = starts[slot];
+                int base = slot * METRICS.length;
+                for (int m = 0; m < METRICS.length; m++) {
+                    mins[m][p] = min[base + m];
+                    avgs[m][p] = sum[base + m] / counts[slot];
+                    maxs[m][p] = max[base + m];
+                }
+            }
+            for (Metric metric : METRICS) {
+                int m = metric.ordinal();
+                series.put(metric.value(), new HealthHistoryResponse.Series(mins[m], avgs[m], maxs[m]));
+            }
+            return new HealthHistoryResponse(resolution.value(), resolution.widthMillis, timestamps, series);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerAsyncClient.CallType;
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.dto.LogsContent;
+import com.admin.hub.app.dto.LogsData;
+import com.admin.hub.app.dto.LogsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recent log lines of each application, served from memory.
+ * Every application viewed gets a {@link LogRingBuffer} of up to monitoring.logs.buffer-lines lines for stdout and
+ * one for stderr. Reads within
+ * monitoring.logs.buffer-ttl of the last refresh are answered from the buffer. After that the next read fetches
+ * only the last monitoring.logs.poll-lines lines and appends the ones not seen before to each stream; the full
+ * window is only fetched again on first use, when more lines are asked for than are buffered, or when the tail of
+ * either stream no longer lines up (gap, rotation). Concurrent reads share one refresh. Buffers are evicted least
+ * recently read first once all of them together hold more than monitoring.logs.buffer-max-memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogBufferService {
+
+    // Deployer default when the caller does not ask for a line count
+    private static final int DEFAULT_LINES = 1000;
+
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final MonitoringProperties monitoringProperties;
+
+    // Buffers in least recently read order, guarded by itself
+    private final Map<String, Buffer> buffers = new LinkedHashMap<>(16, 0.75f, true);
+
+    private record Fetched(List<String> stdout, List<String> stderr, LogsData data) {
+    }
+
+    private static final class Buffer {
+        private final LogRingBuffer stdout;
+        private final LogRingBuffer stderr;
+        private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+        // Written by the refresh before it releases inFlight
+        private volatile String service;
+        private volatile int code;
+        private volatile long refreshedAt;
+        private volatile boolean loaded;
+        // The deployer returned fewer lines than asked for, so the buffer holds the whole stream
+        private volatile boolean stdoutComplete;
+        private volatile boolean stderrComplete;
+
+        private Buffer(int capacity) {
+            this.stdout = new LogRingBuffer(capacity);
+            this.stderr = new LogRingBuffer(capacity);
+        }
+
+        private boolean covers(int count) {
+            return loaded
+                    && (stdoutComplete || stdout.lineCount() >= count)
+                    && (stderrComplete || stderr.lineCount() >= count);
+        }
+
+        private long memoryBytes() {
+            return stdout.memoryBytes() + stderr.memoryBytes();
+        }
+
+        private LogsData view(int count) {
+            return LogsData.builder()
+                    .service(service)
+                    .logs(new LogsContent(code, stdout.tail(count), stderr.tail(count)))
+                    .build();
+        }
+    }
+
+    /**
+     * The last {@code lines} lines of the application's stdout and stderr
+     */
+    public CompletableFuture<LogsData> getLogs(String applicationName, Integer lines) {
+        MonitoringProperties.Logs config = monitoringProperties.getLogs();
+        int count = lines != null && lines > 0 ? Math.min(lines, config.getBufferLines()) : Math.min(DEFAULT_LINES, config.getBufferLines());
+        Buffer buffer = buffer(applicationName);
+        if (buffer.covers(count) && System.nanoTime() - buffer.refreshedAt < config.getBufferTtl().toNanos()) {
+            return CompletableFuture.completedFuture(buffer.view(count));
+        }
+        return refresh(applicationName, buffer, count).thenApply(ignored -> buffer.view(count));
+    }
+
+    private Buffer buffer(String applicationName) {
+        synchronized (buffers) {
+            return buffers.computeIfAbsent(applicationName, name -> new Buffer(monitoringProperties.getLogs().getBufferLines()));
+        }
+    }
+
+    /**
+     * Start a refresh or join the running one. Callers get their own copy so cancelling one does not cancel
+     * the shared call.
+     */
+    private CompletableFuture<Void> refresh(String applicationName, Buffer buffer, int count) {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        CompletableFuture<Void> existing = buffer.inFlight.compareAndExchange(null, pending);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        CompletableFuture<Void> call;
+        try {
+            call = buffer.covers(count) ? append(applicationName, buffer, count) : reload(applicationName, buffer, count);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                buffer.refreshedAt = System.nanoTime();
+                enforceMemoryLimit(applicationName);
+            }
+            buffer.inFlight.set(null);
+            if (ex == null) {
+                pending.complete(null);
+            } else {
+                pending.completeExceptionally(ex);
+            }
+        });
+        return pending.copy();
+    }
+
+    /**
+     * Fetch the short tail and append the lines not buffered yet; fall back to a full reload if it does not
+     * line up with the buffered lines
+     */
+    private CompletableFuture<Void> append(String applicationName, Buffer buffer, int count) {
+        int pollLines = Math.min(monitoringProperties.getLogs().getPollLines(), monitoringProperties.getLogs().getBufferLines());
+        return fetch(applicationName, pollLines).thenCompose(fetched -> {
+            int stdoutOverlap = overlap(buffer.stdout, fetched.stdout());
+            int stderrOverlap = overlap(buffer.stderr, fetched.stderr());
+            if (stdoutOverlap < 0 || stderrOverlap < 0) {
+                log.debug("Buffered logs of {} no longer line up with the deployer, reloading", applicationName);
+                int buffered = Math.max(buffer.stdout.lineCount(), buffer.stderr.lineCount());
+                return reload(applicationName, buffer, Math.max(count, buffered));
+            }
+            buffer.stdout.append(fetched.stdout().subList(stdoutOverlap, fetched.stdout().size()));
+            buffer.stderr.append(fetched.stderr().subList(stderrOverlap, fetched.stderr().size()));
+            store(buffer, fetched,
+                    buffer.stdoutComplete && fetched.stdout().size() < pollLines,
+                    buffer.stderrComplete && fetched.stderr().size() < pollLines);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Lines at the start of the fetched tail that are already buffered, -1 if the tail does not line up
+     */
+    private static int overlap(LogRingBuffer buffered, List<String> fetched) {
+        List<String> previous = buffered.lastLines(fetched.size());
+        int overlap = LogTailStream.overlap(previous, fetched);
+        return overlap == 0 && !previous.isEmpty() && !fetched.isEmpty() ? -1 : overlap;
+    }
+
+    private CompletableFuture<Void> reload(String applicationName, Buffer buffer, int count) {
+        return fetch(applicationName, count).thenAccept(fetched -> {
+            buffer.stdout.clear();
+            buffer.stdout.append(fetched.stdout());
+            buffer.stderr.clear();
+            buffer.stderr.append(fetched.stderr());
+            store(buffer, fetched, fetched.stdout().size() < count, fetched.stderr().size() < count);
+        });
+    }
+
+    private static void store(Buffer buffer, Fetched fetched, boolean stdoutComplete, boolean stderrComplete) {
+        LogsData data = fetched.data();
+        buffer.service = data != null ? data.getService() : null;
+        buffer.code = data != null && data.getLogs() != null ? data.getLogs().getCode() : 0;
+        buffer.stdoutComplete = stdoutComplete;
+        buffer.stderrComplete = stderrComplete;
+        buffer.loaded = true;
+    }
+
+    private CompletableFuture<Fetched> fetch(String applicationName, int lines) {
+        String endpoint = "/api/v1/application/logs/" + applicationName + "?lines=" + lines;
+        log.debug("Fetching {} log lines of {}", lines, applicationName);
+        return deployerAsyncClient.exchange(HttpMethod.GET, endpoint, LogsResponse.class, CallType.READ)
+                .thenApply(response -> toFetched(applicationName, response));
+    }
+
+    private static Fetched toFetched(String applicationName, ResponseEntity<LogsResponse> response) {
+        LogsResponse body = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || body == null || !body.isSuccess()) {
+            throw new IllegalStateException("Failed to fetch logs for " + applicationName + " with status: " + response.getStatusCode());
+        }
+        LogsContent logs = body.getData() != null ? body.getData().getLogs() : null;
+        return new Fetched(lines(logs != null ? logs.getStdout() : null), lines(logs != null ? logs.getStderr() : null), body.getData());
+    }
+
+    private static List<String> lines(String text) {
+        return text == null || text.isEmpty() ? List.of() : List.of(text.split("\r?\n"));
+    }
+
+    /**
+     * Evict the least recently read buffers (never the one just refreshed) until all fit in the memory limit
+     */
+    private void enforceMemoryLimit(String current) {
+        long limit = monitoringProperties.getLogs().getBufferMaxMemory().toBytes();
+        synchronized (buffers) {
+            long total = 0;
+            for (Buffer buffer : buffers.values()) {
+                total += buffer.memoryBytes();
+            }
+            Iterator<Map.Entry<String, Buffer>> eldest = buffers.entrySet().iterator();
+            while (total > limit && eldest.hasNext()) {
+                Map.Entry<String, Buffer> entry = eldest.next();
+                if (entry.getKey().equals(current)) {
+                    continue;
+                }
+                total -= entry.getValue().memoryBytes();
+                eldest.remove();
+                log.debug("Evicted buffered logs of {}", entry.getKey());
+            }
+        }
+    }
+}
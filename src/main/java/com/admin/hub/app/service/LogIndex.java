@@ -0,0 +1,140 @@
+package com.admin.hub.app.service;
+
+import java.util.Arrays;
+
+/**
+ * Line offsets and log levels of one fetched log window, built in a single pass.
+ * Lines are never copied out of the original text until they are returned as matches.
+ */
+public final class LogIndex {
+
+    public enum Level {
+        ERROR, WARN, INFO, DEBUG, TRACE, UNKNOWN
+    }
+
+    // Level tokens are only looked for near the start of a line (after timestamp, host, logger prefix)
+    private static final int LEVEL_SCAN_CHARS = 120;
+    private static final Level[] LEVELS = Level.values();
+
+    private final String text;
+    // lineStarts[i] is the offset of line i; lineStarts[lineCount] is where a next line would start
+    private final int[] lineStarts;
+    private final byte[] levels;
+    private final int lineCount;
+
+    private LogIndex(String text, int[] lineStarts, byte[] levels, int lineCount) {
+        this.text = text;
+        this.lineStarts = lineStarts;
+        this.levels = levels;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Index the text. Lines without a level token (stack trace frames, wrapped messages) inherit the level of
+     * the line above, so filtering by ERROR keeps whole stack traces.
+     */
+    public static LogIndex build(String text) {
+        int capacity = 1024;
+        int[] starts = new int[capacity];
+        byte[] levels = new byte[capacity];
+        int count = 0;
+        Level previous = Level.UNKNOWN;
+
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (count == capacity) {
+                capacity *= 2;
+                starts = Arrays.copyOf(starts, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+            }
+            Level level = detectLevel(text, start, end);
+            if (level == Level.UNKNOWN) {
+                level = previous;
+            }
+            starts[count] = start;
+            levels[count] = (byte) level.ordinal();
+            previous = level;
+            count++;
+            start = end + 1;
+        }
+        int[] lineStarts = Arrays.copyOf(starts, count + 1);
+        lineStarts[count] = start;
+        return new LogIndex(text, lineStarts, Arrays.copyOf(levels, count), count);
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public Level level(int line) {
+        return LEVELS[levels[line]];
+    }
+
+    /**
+     * Whole text, for matching with regions instead of per-line substrings
+     */
+    public String text() {
+        return text;
+    }
+
+    public int lineStart(int line) {
+        return lineStarts[line];
+    }
+
+    /**
+     * End of the line, excluding the line break (and a trailing carriage return)
+     */
+    public int lineEnd(int line) {
+        int end = lineStarts[line + 1] - 1;
+        return end > lineStarts[line] && text.charAt(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    public String line(int line) {
+        return text.substring(lineStart(line), lineEnd(line));
+    }
+
+    /**
+     * First standalone level word (ERROR, WARN/WARNING, INFO, DEBUG, TRACE, FATAL/SEVERE) near the line start
+     */
+    private static Level detectLevel(String text, int start, int end) {
+        int limit = Math.min(end, start + LEVEL_SCAN_CHARS);
+        for (int i = start; i < limit; i++) {
+            char c = text.charAt(i);
+            if (c < 'A' || c > 'Z' || (i > start && Character.isLetter(text.charAt(i - 1)))) {
+                continue;
+            }
+            int wordEnd = i + 1;
+            while (wordEnd < end && text.charAt(wordEnd) >= 'A' && text.charAt(wordEnd) <= 'Z') {
+                wordEnd++;
+            }
+            if (wordEnd < end && Character.isLetter(text.charAt(wordEnd))) {
+                i = wordEnd;
+                continue;
+            }
+            Level level = toLevel(text, i, wordEnd - i);
+            if (level != Level.UNKNOWN) {
+                return level;
+            }
+            i = wordEnd;
+        }
+        return Level.UNKNOWN;
+    }
+
+    private static Level toLevel(String text, int offset, int length) {
+        return switch (length) {
+            case 4 -> text.startsWith("WARN", offset) ? Level.WARN
+                    : text.startsWith("INFO", offset) ? Level.INFO : Level.UNKNOWN;
+            case 5 -> text.startsWith("ERROR", offset) || text.startsWith("FATAL", offset) ? Level.ERROR
+                    : text.startsWith("DEBUG", offset) ? Level.DEBUG
+                    : text.startsWith("TRACE", offset) ? Level.TRACE : Level.UNKNOWN;
+            case 6 -> text.startsWith("SEVERE", offset) ? Level.ERROR : Level.UNKNOWN;
+            case 7 -> text.startsWith("WARNING", offset) ? Level.WARN : Level.UNKNOWN;
+            default -> Level.UNKNOWN;
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package com.admin.hub.app.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded tail of one application's log, kept as deflate-compressed chunks of lines.
+ * New lines go to an open chunk that is compressed once it holds {@value #CHUNK_LINES} lines. Whole chunks
+ * are dropped from the head while at least {@code capacity} lines remain. Reads only inflate the chunks
+ * covering the requested tail, and the last rendered tail is reused until the next append.
+ */
+public class LogRingBuffer {
+
+    static final int CHUNK_LINES = 256;
+    // Rough per-chunk overhead (record, array header, deque slot) for memory accounting
+    private static final int CHUNK_OVERHEAD = 64;
+
+    private record Chunk(byte[] data, int rawLength, int lines) {
+    }
+
+    private final int capacity;
+    private final Deque<Chunk> chunks = new ArrayDeque<>();
+    private final List<String> open = new ArrayList<>(CHUNK_LINES);
+    private int sealedLines;
+    private long compressedBytes;
+    private long openChars;
+
+    // Last tail handed out by tail(), cleared when lines are added
+    private String rendered;
+    private int renderedLines;
+
+    public LogRingBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void append(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        for (String line : lines) {
+            open.add(line);
+            openChars += line.length();
+            if (open.size() == CHUNK_LINES) {
+                seal();
+            }
+        }
+        rendered = null;
+    }
+
+    public synchronized void clear() {
+        chunks.clear();
+        open.clear();
+        sealedLines = 0;
+        compressedBytes = 0;
+        openChars = 0;
+        rendered = null;
+    }
+
+    public synchronized int lineCount() {
+        return Math.min(capacity, sealedLines + open.size());
+    }
+
+    /**
+     * Approximate heap held by the buffer: compressed chunks plus the uncompressed open chunk
+     */
+    public synchronized long memoryBytes() {
+        return compressedBytes + (long) chunks.size() * CHUNK_OVERHEAD + openChars * 2 + (long) open.size() * 48;
+    }
+
+    /**
+     * The last {@code count} lines joined with '\n'
+     */
+    public synchronized String tail(int count) {
+        int lines = Math.min(count, lineCount());
+        if (rendered == null || renderedLines != lines) {
+            rendered = render(lines);
+            renderedLines = lines;
+        }
+        return rendered;
+    }
+
+    /**
+     * The last {@code count} lines, for matching against a freshly fetched tail
+     */
+    public synchronized List<String> lastLines(int count) {
+        int lines = Math.min(count, lineCount());
+        if (lines <= open.size()) {
+            return List.copyOf(open.subList(open.size() - lines, open.size()));
+        }
+        return List.of(render(lines).split("\n", -1));
+    }
+
+    private String render(int lines) {
+        if (lines == 0) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        boolean first = true;
+        int fromSealed = lines - Math.min(lines, open.size());
+        if (fromSealed > 0) {
+            // Newest chunks covering the sealed part, then inflated oldest first
+            Deque<Chunk> needed = new ArrayDeque<>();
+            int covered = 0;
+            Iterator<Chunk> newest = chunks.descendingIterator();
+            while (covered < fromSealed && newest.hasNext()) {
+                Chunk chunk = newest.next();
+                needed.addFirst(chunk);
+                covered += chunk.lines();
+            }
+            int skip = covered - fromSealed;
+            for (Chunk chunk : needed) {
+                String text = inflate(chunk);
+                int start = 0;
+                for (; skip > 0; skip--) {
+                    start = text.indexOf('\n', start) + 1;
+                }
+                if (!first) {
+                    out.append('\n');
+                }
+                out.append(text, start, text.length());
+                first = false;
+            }
+        }
+        for (int i = open.size() - (lines - fromSealed); i < open.size(); i++) {
+            if (!first) {
+                out.append('\n');
+            }
+            out.append(open.get(i));
+            first = false;
+        }
+        return out.toString();
+    }
+
+    private void seal() {
+        byte[] raw = String.join("\n", open).getBytes(StandardCharsets.UTF_8);
+        Chunk chunk = new Chunk(deflate(raw), raw.length, open.size());
+        chunks.addLast(chunk);
+        sealedLines += chunk.lines();
+        compressedBytes += chunk.data().length;
+        open.clear();
+        openChars = 0;
+
+        while (!chunks.isEmpty() && sealedLines - chunks.peekFirst().lines() >= capacity) {
+            Chunk dropped = chunks.removeFirst();
+            sealedLines -= dropped.lines();
+            compressedBytes -= dropped.data().length;
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(Chunk chunk) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(chunk.data());
+            byte[] raw = new byte[chunk.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return new String(raw, 0, read, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt log chunk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
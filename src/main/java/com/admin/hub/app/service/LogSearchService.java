@@ -0,0 +1,278 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.dto.LogSearchResponse;
+import com.admin.hub.app.dto.LogsContent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server side log search.
+ * The log window (last N lines of stdout and of stderr) is read from the {@link LogBufferService} once and each stream is
+ * indexed ({@link LogIndex}); the indexes are kept for
+ * monitoring.logs.search-snapshot-ttl under a snapshot id so following pages scan the same lines instead of
+ * fetching the logs again. The matching lines of a query are kept with the snapshot too, so only the first page
+ * scans the window and following pages are a lookup. Scans run on the application task executor and are aborted
+ * with a {@link LogSearchTimeoutException} after monitoring.logs.search-timeout, so a pathological regex can not
+ * pin a thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogSearchService {
+
+    private static final int MAX_LINES = 10000;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_QUERIES_PER_SNAPSHOT = 16;
+
+    private final LogBufferService logBufferService;
+    private final MonitoringProperties monitoringProperties;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    private final AtomicLong snapshotIds = new AtomicLong();
+    // Recently indexed windows in insertion order, guarded by itself
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+
+    // Window lines are numbered across both streams, stdout first, then stderr.
+    // matchingLines: window line numbers matching a query, by Query.key()
+    private record Snapshot(String id, String applicationName, LogIndex stdout, LogIndex stderr, long createdAt,
+                            Map<String, int[]> matchingLines) {
+
+        int lineCount() {
+            return stdout.lineCount() + stderr.lineCount();
+        }
+
+        LogSearchResponse.Match match(int line) {
+            boolean isStderr = line >= stdout.lineCount();
+            LogIndex index = isStderr ? stderr : stdout;
+            int streamLine = isStderr ? line - stdout.lineCount() : line;
+            return new LogSearchResponse.Match(streamLine, isStderr ? "stderr" : "stdout",
+                    index.level(streamLine).name(), index.line(streamLine));
+        }
+    }
+
+    /**
+     * What to look for: a compiled literal or regex pattern (null matches every line) and the levels to keep
+     * (empty keeps all)
+     */
+    public record Query(Pattern pattern, Set<LogIndex.Level> levels) {
+
+        /**
+         * @throws IllegalArgumentException for an invalid regex or unknown level
+         */
+        public static Query of(String text, boolean regex, boolean ignoreCase, List<String> levels) {
+            Pattern pattern = null;
+            if (text != null && !text.isEmpty()) {
+                int flags = (regex ? 0 : Pattern.LITERAL) | (ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+                pattern = Pattern.compile(text, flags);
+            }
+            Set<LogIndex.Level> levelSet = EnumSet.noneOf(LogIndex.Level.class);
+            if (levels != null) {
+                for (String level : levels) {
+                    try {
+                        levelSet.add(LogIndex.Level.valueOf(level.trim().toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown log level: " + level);
+                    }
+                }
+            }
+            return new Query(pattern, levelSet);
+        }
+
+        // Pattern has no equals, identify the query by its source, flags and levels
+        String key() {
+            return (pattern != null ? pattern.flags() + "/" + pattern.pattern() : "") + " " + levels;
+        }
+    }
+
+    /**
+     * Return the matches from line {@code cursor} on. With a known snapshot id the already indexed window is
+     * searched, otherwise the last {@code lines} lines are fetched and indexed.
+     */
+    public CompletableFuture<LogSearchResponse> search(String applicationName, Query query, int lines,
+                                                       String snapshotId, int cursor, int limit) {
+        Snapshot snapshot = cached(applicationName, snapshotId);
+        CompletableFuture<Snapshot> source = snapshot != null
+                ? CompletableFuture.completedFuture(snapshot)
+                : fetch(applicationName, Math.max(1, Math.min(lines, MAX_LINES)))
+                        .thenApplyAsync(logs -> store(applicationName, LogIndex.build(logs.getStdout()), LogIndex.build(logs.getStderr())),
+                                applicationTaskExecutor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return source.thenApplyAsync(s -> scan(s, query, Math.max(0, cursor), pageSize), applicationTaskExecutor);
+    }
+
+    private LogSearchResponse scan(Snapshot snapshot, Query query, int cursor, int limit) {
+        int[] lines = snapshot.matchingLines().get(query.key());
+        if (lines == null) {
+            lines = matchingLines(snapshot, query);
+            if (snapshot.matchingLines().size() >= MAX_QUERIES_PER_SNAPSHOT) {
+                snapshot.matchingLines().clear();
+            }
+            snapshot.matchingLines().put(query.key(), lines);
+        }
+
+        int first = Arrays.binarySearch(lines, cursor);
+        if (first < 0) {
+            first = -first - 1;
+        }
+        int last = Math.min(lines.length, first + limit);
+        List<LogSearchResponse.Match> matches = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            matches.add(snapshot.match(lines[i]));
+        }
+
+        return LogSearchResponse.builder()
+                .applicationName(snapshot.applicationName())
+                .success(true)
+                .message(lines.length + " matching lines")
+                .snapshot(snapshot.id())
+                .windowLines(snapshot.lineCount())
+                .totalMatches(lines.length)
+                .matches(matches)
+                .nextCursor(last < lines.length ? lines[last] : null)
+                .build();
+    }
+
+    /**
+     * Window line numbers matching the query, ascending
+     */
+    private int[] matchingLines(Snapshot snapshot, Query query) {
+        Duration timeout = monitoringProperties.getLogs().getSearchTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Matches found = new Matches();
+        collect(snapshot.stdout(), 0, query, deadline, timeout, found);
+        collect(snapshot.stderr(), snapshot.stdout().lineCount(), query, deadline, timeout, found);
+        return Arrays.copyOf(found.lines, found.count);
+    }
+
+    private static void collect(LogIndex index, int firstLine, Query query, long deadline, Duration timeout, Matches found) {
+        Matcher matcher = query.pattern() != null
+                ? query.pattern().matcher(new DeadlineCharSequence(index.text(), deadline, timeout.toMillis()))
+                : null;
+        for (int line = 0; line < index.lineCount(); line++) {
+            if (!query.levels().isEmpty() && !query.levels().contains(index.level(line))) {
+                continue;
+            }
+            if (matcher != null) {
+                matcher.region(index.lineStart(line), index.lineEnd(line));
+                if (!matcher.find()) {
+                    continue;
+                }
+            }
+            found.add(firstLine + line);
+        }
+    }
+
+    private static final class Matches {
+        private int[] lines = new int[16];
+        private int count;
+
+        private void add(int line) {
+            if (count == lines.length) {
+                lines = Arrays.copyOf(lines, count * 2);
+            }
+            lines[count++] = line;
+        }
+    }
+
+    private CompletableFuture<LogsContent> fetch(String applicationName, int lines) {
+        log.info("Reading {} log lines of {} for search", lines, applicationName);
+        return logBufferService.getLogs(applicationName, lines).thenApply(data -> {
+            LogsContent logs = data.getLogs();
+            return LogsContent.builder()
+                    .stdout(logs != null && logs.getStdout() != null ? logs.getStdout() : "")
+                    .stderr(logs != null && logs.getStderr() != null ? logs.getStderr() : "")
+                    .build();
+        });
+    }
+
+    private Snapshot cached(String applicationName, String snapshotId) {
+        if (snapshotId == null) {
+            return null;
+        }
+        synchronized (snapshots) {
+            evictExpired();
+            Snapshot snapshot = snapshots.get(snapshotId);
+            return snapshot != null && snapshot.applicationName().equals(applicationName) ? snapshot : null;
+        }
+    }
+
+    private Snapshot store(String applicationName, LogIndex stdout, LogIndex stderr) {
+        Snapshot snapshot = new Snapshot(Long.toString(snapshotIds.incrementAndGet(), 36), applicationName, stdout, stderr,
+                System.nanoTime(), new ConcurrentHashMap<>());
+        synchronized (snapshots) {
+            evictExpired();
+            snapshots.put(snapshot.id(), snapshot);
+            Iterator<Snapshot> oldest = snapshots.values().iterator();
+            while (snapshots.size() > monitoringProperties.getLogs().getSearchSnapshots()) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+        return snapshot;
+    }
+
+    private void evictExpired() {
+        long ttl = monitoringProperties.getLogs().getSearchSnapshotTtl().toNanos();
+        long now = System.nanoTime();
+        snapshots.values().removeIf(snapshot -> now - snapshot.createdAt() > ttl);
+    }
+
+    /**
+     * Text view that aborts regex matching once the search deadline has passed
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+
+        private final CharSequence text;
+        private final long deadline;
+        private final long timeoutMillis;
+        private int reads;
+
+        private DeadlineCharSequence(CharSequence text, long deadline, long timeoutMillis) {
+            this.text = text;
+            this.deadline = deadline;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & 0xFFFF) == 0 && System.nanoTime() - deadline > 0) {
+                throw new LogSearchTimeoutException(timeoutMillis);
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.subSequence(start, end), deadline, timeoutMillis);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.admin.hub.app.service;
+
+/**
+ * Thrown when a log search runs past monitoring.logs.search-timeout, typically because of a backtracking regex.
+ * The query itself is valid, so this is not a client error; retrying with a more specific query usually helps.
+ */
+public class LogSearchTimeoutException extends RuntimeException {
+
+    public LogSearchTimeoutException(long timeoutMillis) {
+        super("Search took longer than " + timeoutMillis + " ms, use a more specific query");
+    }
+}
@@ -0,0 +1,160 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerAsyncClient.CallType;
+import com.admin.hub.app.client.DeployerUnavailableException;
+import com.admin.hub.app.config.MonitoringProperties;
+import com.admin.hub.app.dto.LogsContent;
+import com.admin.hub.app.dto.LogsResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live log tails for the follow-mode SSE endpoint.
+ * One poller serves all viewers of an application: every monitoring.logs.poll-interval it fetches the last
+ * monitoring.logs.poll-lines lines of stdout and stderr from the deployer and pushes only the lines not seen
+ * before. Viewers get the last monitoring.logs.tail-lines lines of each stream on connect. Slow browsers are handled by their bounded SSE queue
+ * (see {@link SseSubscriber}); they skip to a fresh tail instead of buffering the backlog.
+ * Applications nobody watches anymore are dropped at the next poll.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogTailService {
+
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final ApplicationRegistry applicationRegistry;
+    private final ObjectMapper objectMapper;
+    private final MonitoringProperties monitoringProperties;
+    private final SseDispatcher sseDispatcher;
+    private final PollingScheduler pollingScheduler;
+
+    private final Map<String, Follower> followers = new ConcurrentHashMap<>();
+    private PollingScheduler.Job pollJob;
+
+    /**
+     * joining counts viewers between looking the follower up and joining its stream, the poller keeps it meanwhile
+     */
+    private record Follower(LogTailStream stream, List<SseSubscriber> subscribers, AtomicInteger joining) {
+    }
+
+    private record Tail(List<String> stdout, List<String> stderr) {
+    }
+
+    @PostConstruct
+    void registerJob() {
+        pollJob = pollingScheduler.register("log-tail", () -> monitoringProperties.getLogs().getPollInterval(), this::poll);
+    }
+
+    public CompletableFuture<Boolean> isConfiguredAsync(String applicationName) {
+        return applicationRegistry.findAsync(applicationName).thenApply(Optional::isPresent);
+    }
+
+    /**
+     * Attach a viewer to the application's log tail. With a Last-Event-ID the viewer only gets the lines it missed.
+     */
+    public void follow(String applicationName, SseEmitter emitter, String lastEventId) {
+        SseSubscriber subscriber = sseDispatcher.open(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(throwable -> {
+            subscriber.close();
+            log.debug("Log stream connection error", throwable);
+        });
+
+        // Only the joining count is touched under the map lock; the join itself (stream and subscriber locks, first
+        // frame) runs after it, and the count keeps the poller from dropping a follower that has no subscriber yet
+        Follower follower = followers.compute(applicationName, (name, existing) -> {
+            Follower target = existing != null ? existing
+                    : new Follower(new LogTailStream(objectMapper, monitoringProperties.getLogs().getTailLines()),
+                    new CopyOnWriteArrayList<>(), new AtomicInteger());
+            target.joining().incrementAndGet();
+            return target;
+        });
+        LogTailStream stream = follower.stream();
+        try {
+            sseDispatcher.join(subscriber, stream, follower.subscribers(),
+                    () -> lastEventId != null ? stream.resumeFrom(lastEventId) : stream.keyframe());
+        } finally {
+            follower.joining().decrementAndGet();
+        }
+
+        if (!follower.stream().isLoaded()) {
+            pollJob.trigger();
+        }
+    }
+
+    /**
+     * Fetch the tail of every watched application in parallel and push the new lines
+     */
+    private void poll() {
+        if (followers.isEmpty()) {
+            return;
+        }
+        MonitoringProperties.Logs config = monitoringProperties.getLogs();
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        for (String applicationName : followers.keySet()) {
+            Follower follower = followers.computeIfPresent(applicationName, (name, existing) -> {
+                existing.subscribers().removeIf(SseSubscriber::isClosed);
+                return existing.subscribers().isEmpty() && existing.joining().get() == 0 ? null : existing;
+            });
+            if (follower == null) {
+                log.debug("Stopped following logs of {}", applicationName);
+                continue;
+            }
+            LogTailStream stream = follower.stream();
+            int lines = stream.isLoaded() ? config.getPollLines() : config.getTailLines();
+            fetches.add(fetchTail(applicationName, lines)
+                    .thenAccept(tail -> sseDispatcher.broadcast(stream, () -> stream.update(tail.stdout(), tail.stderr()), follower.subscribers()))
+                    .exceptionally(ex -> {
+                        Throwable e = unwrap(ex);
+                        if (e instanceof DeployerUnavailableException) {
+                            log.debug("Skipping log poll for {}: {}", applicationName, e.getMessage());
+                        } else {
+                            log.warn("Error polling logs for {}: {}", applicationName, e.getMessage());
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private CompletableFuture<Tail> fetchTail(String applicationName, int lines) {
+        String endpoint = "/api/v1/application/logs/" + applicationName + "?lines=" + lines;
+        return deployerAsyncClient.exchange(HttpMethod.GET, endpoint, LogsResponse.class, CallType.READ)
+                .thenApply(response -> toTail(applicationName, response));
+    }
+
+    private static Tail toTail(String applicationName, ResponseEntity<LogsResponse> response) {
+        LogsResponse body = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || body == null || !body.isSuccess()) {
+            throw new IllegalStateException("Deployer returned " + response.getStatusCode() + " for logs of " + applicationName);
+        }
+        LogsContent logs = body.getData() != null ? body.getData().getLogs() : null;
+        return new Tail(lines(logs != null ? logs.getStdout() : null), lines(logs != null ? logs.getStderr() : null));
+    }
+
+    private static List<String> lines(String text) {
+        return text == null || text.isEmpty() ? List.of() : List.of(text.split("\r?\n"));
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
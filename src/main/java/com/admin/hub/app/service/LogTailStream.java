@@ -0,0 +1,187 @@
+package com.admin.hub.app.service;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Follow-mode view of one application's stdout and stderr.
+ * The deployer only serves "the last N lines" of each stream, so the cursors are kept here: every fetched tail is
+ * matched against the previous one of the same stream and only lines not seen before are sent, each tagged with
+ * its stream. New stdout lines of a poll come before its new stderr lines; the deployer gives no timestamps to
+ * interleave them by.
+ * <pre>
+ * {"cursor": 500, "reset": true,  "gap": false, "lines": [{"stream": "stdout", "text": "..."}, ...]}   initial tail
+ * {"cursor": 503, "reset": false, "gap": false, "lines": [{"stream": "stderr", "text": "..."}, ...]}   new lines
+ * </pre>
+ * A reset frame replaces the client's view, the others are appended. "gap" is set when more lines arrived in
+ * either stream between two polls than one poll fetches, so some were skipped.
+ * "cursor" counts the lines of both streams; the SSE id is "epoch:cursor" and clients reconnecting with
+ * Last-Event-ID get just the lines they missed.
+ */
+public class LogTailStream implements SseStream {
+
+    private static final String EVENT_NAME = "logs";
+    private static final String STDOUT = "stdout";
+    private static final String STDERR = "stderr";
+
+    private record Line(String stream, String text) {
+    }
+
+    /**
+     * Position in one stream: the lines of its previous fetch, matched against the next one
+     */
+    private static final class Cursor {
+        private final String stream;
+        private List<String> window;
+        private boolean gap;
+
+        private Cursor(String stream) {
+            this.stream = stream;
+        }
+
+        /**
+         * Move to the fetched tail and add the lines not seen before
+         */
+        private void advance(List<String> fetched, List<Line> added) {
+            int overlap = window == null ? 0 : overlap(window, fetched);
+            gap = window != null && overlap == 0 && !window.isEmpty();
+            window = fetched;
+            for (String line : fetched.subList(overlap, fetched.size())) {
+                added.add(new Line(stream, line));
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long epoch = System.currentTimeMillis();
+    private final int capacity;
+
+    // Most recent lines of both streams, replayed on connect
+    private final Deque<Line> recent = new ArrayDeque<>();
+    private final Cursor stdout = new Cursor(STDOUT);
+    private final Cursor stderr = new Cursor(STDERR);
+    private boolean loaded;
+    private long cursor;
+    private SseFrame keyframe;
+
+    /**
+     * @param linesPerStream lines of each stream replayed on connect
+     */
+    public LogTailStream(ObjectMapper objectMapper, int linesPerStream) {
+        this.objectMapper = objectMapper;
+        this.capacity = 2 * linesPerStream;
+    }
+
+    @Override
+    public String eventName() {
+        return EVENT_NAME;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Merge freshly fetched tails of both streams; returns the frame with the new lines, or null if nothing changed
+     */
+    public synchronized SseFrame update(List<String> stdoutTail, List<String> stderrTail) {
+        boolean initial = !loaded;
+        loaded = true;
+        List<Line> added = new ArrayList<>();
+        stdout.advance(stdoutTail, added);
+        stderr.advance(stderrTail, added);
+        if (!initial && added.isEmpty()) {
+            return null;
+        }
+        for (Line line : added) {
+            recent.addLast(line);
+            if (recent.size() > capacity) {
+                recent.removeFirst();
+            }
+        }
+        cursor += added.size();
+        keyframe = null;
+        return initial ? keyframe() : frame(false, stdout.gap || stderr.gap, added);
+    }
+
+    @Override
+    public synchronized SseFrame keyframe() {
+        if (!loaded) {
+            return null;
+        }
+        if (keyframe == null) {
+            keyframe = frame(true, false, recent);
+        }
+        return keyframe;
+    }
+
+    /**
+     * First frame for a client resuming from the given SSE id: the lines it missed, nothing if it is up to date,
+     * or a keyframe if the id is unknown or too old
+     */
+    public synchronized SseFrame resumeFrom(String lastEventId) {
+        if (!loaded) {
+            return null;
+        }
+        long lastCursor = parseCursor(lastEventId);
+        long missed = cursor - lastCursor;
+        if (lastCursor < 0 || missed < 0 || missed > recent.size()) {
+            return keyframe();
+        }
+        if (missed == 0) {
+            return null;
+        }
+        Line[] lines = new Line[(int) missed];
+        Iterator<Line> newest = recent.descendingIterator();
+        for (int i = lines.length - 1; i >= 0; i--) {
+            lines[i] = newest.next();
+        }
+        return frame(false, false, List.of(lines));
+    }
+
+    private long parseCursor(String lastEventId) {
+        int separator = lastEventId.indexOf(':');
+        try {
+            if (separator < 0 || Long.parseLong(lastEventId.substring(0, separator)) != epoch) {
+                return -1;
+            }
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseFrame frame(boolean reset, boolean gap, Collection<Line> lines) {
+        ObjectNode frame = objectMapper.createObjectNode();
+        frame.put("cursor", cursor);
+        frame.put("reset", reset);
+        frame.put("gap", gap);
+        ArrayNode array = frame.putArray("lines");
+        for (Line line : lines) {
+            array.addObject()
+                    .put("stream", line.stream())
+                    .put("text", line.text());
+        }
+        return SseFrame.of(epoch + ":" + cursor, EVENT_NAME, objectMapper.writeValueAsBytes(frame));
+    }
+
+    /**
+     * Length of the longest suffix of the previous tail that starts the new one
+     */
+    static int overlap(List<String> previous, List<String> next) {
+        for (int length = Math.min(previous.size(), next.size()); length > 0; length--) {
+            if (previous.subList(previous.size() - length, previous.size()).equals(next.subList(0, length))) {
+                return length;
+            }
+        }
+        return 0;
+    }
+}
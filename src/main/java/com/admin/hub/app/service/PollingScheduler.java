@@ -0,0 +1,189 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs each background polling job on its own thread, so a slow job can never delay another one.
+ * Jobs tick every monitoring.polling.interval unless registered with their own interval. Each start is delayed
+ * by a random 0..monitoring.polling.jitter so jobs sharing a cadence do not hit the deployer at the same instant. A run never overlaps the previous one:
+ * ticks that fall due while the job is still busy are skipped and counted instead of queued.
+ * Per job (tag "job"): polling.job.duration and polling.job.lag (start time minus planned start) histograms,
+ * polling.job.skipped counter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PollingScheduler implements SmartLifecycle {
+
+    private final MonitoringProperties monitoringProperties;
+    private final MeterRegistry meterRegistry;
+    private final List<Job> jobs = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Register a job ticking every monitoring.polling.interval; it starts once the application context is started
+     */
+    public Job register(String name, Runnable task) {
+        return register(name, () -> monitoringProperties.getPolling().getInterval(), task);
+    }
+
+    /**
+     * Register a job with its own interval (read before every tick)
+     */
+    public Job register(String name, Supplier<Duration> interval, Runnable task) {
+        Job job = new Job(name, interval, task);
+        jobs.add(job);
+        if (running) {
+            job.start();
+        }
+        return job;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        jobs.forEach(Job::start);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        jobs.forEach(Job::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public final class Job {
+
+        private final String name;
+        private final Supplier<Duration> interval;
+        private final Runnable task;
+        private final ScheduledExecutorService executor;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private final Timer duration;
+        private final Timer lag;
+        private final Counter skipped;
+
+        // Nominal time (System.nanoTime()) of the next tick, only touched on the job thread
+        private long nextTick;
+
+        private Job(String name, Supplier<Duration> interval, Runnable task) {
+            this.name = name;
+            this.interval = interval;
+            this.task = task;
+            this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("poll-" + name + "-"));
+            this.duration = Timer.builder("polling.job.duration")
+                    .description("Time taken by a polling job run")
+                    .tag("job", name)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry);
+            this.lag = Timer.builder("polling.job.lag")
+                    .description("Delay between the planned and the actual start of a polling job run")
+                    .tag("job", name)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry);
+            this.skipped = Counter.builder("polling.job.skipped")
+                    .description("Polling job runs skipped because the previous run was still busy")
+                    .tag("job", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Run once as soon as possible, outside the regular cadence. Skipped if a run is in progress.
+         */
+        public void trigger() {
+            if (busy.get()) {
+                skipped.increment();
+                return;
+            }
+            long plannedAt = System.nanoTime();
+            try {
+                executor.execute(() -> run(plannedAt));
+            } catch (RejectedExecutionException e) {
+                log.debug("Polling job {} is stopped, ignoring trigger", name);
+            }
+        }
+
+        private void start() {
+            executor.execute(() -> {
+                nextTick = System.nanoTime();
+                scheduleNext();
+            });
+        }
+
+        private void stop() {
+            executor.shutdownNow();
+        }
+
+        private void tick(long plannedAt) {
+            try {
+                run(plannedAt);
+            } finally {
+                // Advance the cadence past now; ticks that fell due during the run are skipped
+                long period = interval.get().toNanos();
+                nextTick += period;
+                long behind = System.nanoTime() - nextTick;
+                if (behind > 0) {
+                    long missed = behind / period + 1;
+                    nextTick += missed * period;
+                    skipped.increment(missed);
+                    log.warn("Polling job {} overran its interval, skipped {} run(s)", name, missed);
+                }
+                scheduleNext();
+            }
+        }
+
+        private void scheduleNext() {
+            long jitter = monitoringProperties.getPolling().getJitter().toNanos();
+            long plannedAt = nextTick + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+            try {
+                executor.schedule(() -> tick(plannedAt), plannedAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Polling job {} is stopped", name);
+            }
+        }
+
+        private void run(long plannedAt) {
+            if (!busy.compareAndSet(false, true)) {
+                skipped.increment();
+                return;
+            }
+            long start = System.nanoTime();
+            lag.record(Math.max(0, start - plannedAt), TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Polling job {} failed", name, e);
+            } finally {
+                duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                busy.set(false);
+            }
+        }
+    }
+}
@@ -1,129 +1,147 @@
 package com.admin.hub.app.service;
 
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerAsyncClient.CallType;
+import com.admin.hub.app.client.DeployerReadCache;
+import com.admin.hub.app.client.DeployerUnavailableException;
 import com.admin.hub.app.config.DeployerProperties;
 import com.admin.hub.app.dto.RunningService;
 import com.admin.hub.app.dto.ServerHealthSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ServerService {
 
-    private final RestTemplate restTemplate;
+    private static final String RUNNING_SERVICES_KEY = "server-services-status";
+    private static final String SERVER_HEALTH_SUMMARY_KEY = "server-health-summary";
+
+    private final DeployerAsyncClient deployerAsyncClient;
+    private final DeployerReadCache deployerReadCache;
     private final DeployerProperties deployerProperties;
+    private final HealthHistoryStore healthHistoryStore;
 
     /**
      * Get list of running systemd services
      */
     public List<RunningService> getRunningServices() {
+        return runningServices(true).join();
+    }
+
+    /**
+     * Get list of running systemd services without blocking the calling thread.
+     * May return the last known list while a refresh runs.
+     */
+    public CompletableFuture<List<RunningService>> getRunningServicesAsync() {
+        return runningServices(false);
+    }
+
+    private CompletableFuture<List<RunningService>> runningServices(boolean requireFresh) {
+        Supplier<CompletableFuture<List<RunningService>>> loader = () -> {
+            log.info("Fetching running services from: {}/api/v1/server/services/status", deployerProperties.getBaseUrl());
+            return deployerAsyncClient.exchange(HttpMethod.GET, "/api/v1/server/services/status",
+                            new ParameterizedTypeReference<Map<String, Object>>() {}, CallType.READ)
+                    .thenApply(response -> toRunningServices(response.getBody()));
+        };
+        CompletableFuture<List<RunningService>> result = requireFresh
+                ? deployerReadCache.getFresh(RUNNING_SERVICES_KEY, loader)
+                : deployerReadCache.get(RUNNING_SERVICES_KEY, loader);
+        return result.exceptionally(ex -> {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof DeployerUnavailableException) {
+                log.debug("Running services not fetched: {}", cause.getMessage());
+            } else {
+                log.error("Error fetching running services", cause);
+            }
+            return new ArrayList<>();
+        });
+    }
+
+    private List<RunningService> toRunningServices(Map<String, Object> body) {
         List<RunningService> services = new ArrayList<>();
-        try {
-            String url = deployerProperties.getBaseUrl() + "/api/v1/server/services/status";
-            HttpEntity<String> entity = createRequestEntity();
-
-            log.info("Fetching running services from: {}", url);
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            if (response.getBody() != null && Boolean.TRUE.equals(response.getBody().get("success"))) {
-                Object dataObj = response.getBody().get("data");
-                if (dataObj instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> dataMap = (Map<String, Object>) dataObj;
-                    Object servicesObj = dataMap.get("running services");
-                    if (servicesObj instanceof String) {
-                        String servicesOutput = (String) servicesObj;
-                        services = parseServiceOutput(servicesOutput);
-                    }
+        if (body != null && Boolean.TRUE.equals(body.get("success"))) {
+            Object dataObj = body.get("data");
+            if (dataObj instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> dataMap = (Map<String, Object>) dataObj;
+                Object servicesObj = dataMap.get("running services");
+                if (servicesObj instanceof String) {
+                    String servicesOutput = (String) servicesObj;
+                    services = parseServiceOutput(servicesOutput);
                 }
             }
-        } catch (RestClientException e) {
-            log.error("Error fetching running services", e);
         }
-
         return services;
     }
 
-    private List<RunningService> parseServiceOutput(String output) {
+    /**
+     * Parse systemctl list-units output: "name.service loaded active running Description here"
+     */
+    static List<RunningService> parseServiceOutput(String output) {
         List<RunningService> services = new ArrayList<>();
 
         if (output == null || output.isEmpty()) {
             return services;
         }
 
-        String[] lines = output.split("\n");
+        CommandOutputScanner scanner = new CommandOutputScanner(output);
         boolean inLegend = false;
 
-        for (String line : lines) {
+        while (scanner.nextLine()) {
             // Skip header, legend section, and empty lines
-            if (line.isEmpty() ||
-                line.startsWith("UNIT") ||
-                line.startsWith("Legend:") ||
-                line.startsWith("        ")) {
+            if (scanner.lineIsEmpty() ||
+                scanner.lineStartsWith("UNIT") ||
+                scanner.lineStartsWith("Legend:") ||
+                scanner.lineStartsWith("        ")) {
                 inLegend = true;
                 continue;
             }
 
-            if (inLegend && !line.contains("loaded")) {
+            if (inLegend && !scanner.lineContains("loaded")) {
                 continue;
             }
 
             inLegend = false;
 
-            // Parse service line: "service-name.service loaded active running Description here"
-            String trimmed = line.trim();
-            if (trimmed.isEmpty() || !trimmed.contains(".service")) {
+            if (!scanner.lineContains(".service") || scanner.tokenCount() < 4 || !scanner.nextToken()) {
+                continue;
+            }
+            // Failed units are marked with a bullet in front of the name
+            if (scanner.tokenEquals("\u25CF") && !scanner.nextToken()) {
                 continue;
             }
 
-            String[] parts = trimmed.split("\\s+");
-            if (parts.length >= 4) {
-                RunningService service = new RunningService();
-
-                // Extract service name
-                String serviceName = parts[0];
-                service.setName(serviceName);
-
-                // Extract load status (parts[1]) - reserved for potential future use
-                @SuppressWarnings("unused")
-                String loadStatus = parts[1];
-
-                // Extract active status (parts[2])
-                String activeStatus = parts[2];
-
-                // Extract sub status (parts[3])
-                String subStatus = parts[3];
-
-                // Status is active state combined with sub state
-                service.setStatus(activeStatus + " " + subStatus);
-
-                // Extract description (remaining parts joined together)
-                StringBuilder description = new StringBuilder();
-                for (int i = 4; i < parts.length; i++) {
-                    if (i > 4) description.append(" ");
-                    description.append(parts[i]);
-                }
-                service.setDescription(description.toString());
+            RunningService service = new RunningService();
+            service.setName(scanner.token());
 
-                services.add(service);
+            // Load status (loaded, not-found) is not shown
+            if (!scanner.skipTokens(1) || !scanner.nextToken()) {
+                continue;
+            }
+            // Status is active state combined with sub state, "active running"
+            int activeStart = scanner.tokenStart();
+            int activeEnd = scanner.tokenEnd();
+            if (!scanner.nextToken()) {
+                continue;
             }
+            service.setStatus(scanner.tokenStart() == activeEnd + 1
+                    ? scanner.slice(activeStart, scanner.tokenEnd())
+                    : scanner.slice(activeStart, activeEnd) + " " + scanner.token());
+            service.setDescription(scanner.rest());
+
+            services.add(service);
         }
 
         return services;
@@ -133,182 +151,228 @@ public class ServerService {
      * Get server health summary
      */
     public ServerHealthSummary getServerHealthSummary() {
-        ServerHealthSummary summary = new ServerHealthSummary();
+        return serverHealthSummary(true).join();
+    }
 
-        try {
-            String url = deployerProperties.getBaseUrl() + "/api/v1/server/health/summary";
-            HttpEntity<String> entity = createRequestEntity();
+    /**
+     * Get server health summary without blocking the calling thread.
+     * May return the last known summary while a refresh runs.
+     */
+    public CompletableFuture<ServerHealthSummary> getServerHealthSummaryAsync() {
+        return serverHealthSummary(false);
+    }
 
-            log.info("Fetching server health from: {}", url);
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
+    private CompletableFuture<ServerHealthSummary> serverHealthSummary(boolean requireFresh) {
+        Supplier<CompletableFuture<ServerHealthSummary>> loader = () -> {
+            log.info("Fetching server health from: {}/api/v1/server/health/summary", deployerProperties.getBaseUrl());
+            return deployerAsyncClient.exchange(HttpMethod.GET, "/api/v1/server/health/summary",
+                            new ParameterizedTypeReference<Map<String, Object>>() {}, CallType.READ)
+                    .thenApply(response -> toServerHealthSummary(response.getBody()));
+        };
+        CompletableFuture<ServerHealthSummary> result = requireFresh
+                ? deployerReadCache.getFresh(SERVER_HEALTH_SUMMARY_KEY, loader)
+                : deployerReadCache.get(SERVER_HEALTH_SUMMARY_KEY, loader);
+        return result.exceptionally(ex -> {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof DeployerUnavailableException) {
+                log.debug("Server health summary not fetched: {}", cause.getMessage());
+            } else {
+                log.error("Error fetching server health summary", cause);
+            }
+            return new ServerHealthSummary();
+        });
+    }
 
-            if (response.getBody() != null && Boolean.TRUE.equals(response.getBody().get("success"))) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
-                if (data != null) {
-                    double cpu = parseCpuUsage((String) data.get("cpu"));
-                    double memory = parseMemoryUsage((String) data.get("memory"), summary);
-                    double disk = parseDiskUsage((String) data.get("disk"), summary);
-                    parseUptime((String) data.get("load_average"), summary);
-
-                    // Clamp values to valid ranges for UI display
-                    summary.setCpuUsage(Math.max(0.0, cpu));
-                    summary.setMemoryUsage(Math.max(0.0, Math.min(100.0, memory)));
-                    summary.setDiskUsage(Math.max(0.0, Math.min(100.0, disk)));
-
-                    log.info("Server health: CPU={}%, Memory={}% (Total: {}, Used: {}), Disk={}% (Used: {}, Available: {}), Uptime: {}",
-                             cpu, memory, summary.getTotalMemory(), summary.getUsedMemory(), disk, summary.getUsedDisk(), summary.getTotalDisk(), summary.getUptime());
-                }
+    private ServerHealthSummary toServerHealthSummary(Map<String, Object> body) {
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        if (body != null && Boolean.TRUE.equals(body.get("success"))) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> data = (Map<String, Object>) body.get("data");
+            if (data != null) {
+                double cpu = parseCpuUsage((String) data.get("cpu"));
+                double memory = parseMemoryUsage((String) data.get("memory"), summary);
+                double disk = parseDiskUsage((String) data.get("disk"), summary);
+                parseUptime((String) data.get("load_average"), summary);
+
+                // Clamp values to valid ranges for UI display
+                summary.setCpuUsage(Math.max(0.0, cpu));
+                summary.setMemoryUsage(Math.max(0.0, Math.min(100.0, memory)));
+                summary.setDiskUsage(Math.max(0.0, Math.min(100.0, disk)));
+
+                healthHistoryStore.recordServerSample(System.currentTimeMillis(), summary.getCpuUsage(), summary.getMemoryUsage(),
+                        summary.getDiskUsage(), summary.getLoadAverage());
+
+                log.info("Server health: CPU={}%, Memory={}% (Total: {}, Used: {}), Disk={}% (Used: {}, Available: {}), Uptime: {}",
+                         cpu, memory, summary.getTotalMemory(), summary.getUsedMemory(), disk, summary.getUsedDisk(), summary.getTotalDisk(), summary.getUptime());
             }
-        } catch (RestClientException e) {
-            log.error("Error fetching server health summary", e);
-        } catch (Exception e) {
-            log.error("Unexpected error fetching server health summary", e);
         }
 
         return summary;
     }
 
-    private double parseCpuUsage(String cpuData) {
+    /**
+     * CPU usage from vmstat output, 100 - the id column of the last sample
+     * <pre>
+     * procs -----------memory---------- ---swap-- -----io---- -system-- -------cpu-------
+     *  r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st gu
+     *  0  0      0 3720824 124728 2857108    0    0    19    34  434    1  1  0 99  0  0  0
+     * </pre>
+     */
+    static double parseCpuUsage(String cpuData) {
         if (cpuData == null) return 0.0;
-        try {
-            // Parse vmstat output for CPU usage
-            // Format: r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st gu
-            //         0  0      0 3720824 124728 2857108    0    0    19    34  434    1  1  0 99  0  0  0
-            String[] lines = cpuData.split("\n");
-            if (lines.length >= 3) {
-                String[] parts = lines[3].trim().split("\\s+");
-                if (parts.length >= 15) {
-                    int idleIndex = parts.length - 4;
-                    double user = Double.parseDouble(parts[idleIndex]);
-                    return (100-user);  // CPU usage = 100 - idle
+        CommandOutputScanner scanner = new CommandOutputScanner(cpuData);
+        int idleColumn = -1;
+        double idle = Double.NaN;
+        while (scanner.nextLine()) {
+            if (!scanner.nextToken()) {
+                continue;
+            }
+            if (!scanner.tokenIsNumeric()) {
+                // Header line: find the column of "id"
+                for (int column = 0; idleColumn < 0; column++) {
+                    if (scanner.tokenEquals("id")) {
+                        idleColumn = column;
+                    } else if (!scanner.nextToken()) {
+                        break;
+                    }
+                }
+            } else if (idleColumn >= 0) {
+                scanner.rewindLine();
+                if (scanner.skipTokens(idleColumn + 1)) {
+                    idle = scanner.tokenAsNumber();
                 }
             }
-        } catch (Exception e) {
-            log.error("Error parsing CPU usage", e);
         }
-        return 0.0;
+        if (Double.isNaN(idle)) {
+            log.warn("No idle CPU column found in vmstat output");
+            return 0.0;
+        }
+        return 100 - idle;
     }
 
-    private double parseMemoryUsage(String memoryData, ServerHealthSummary summary) {
+    /**
+     * Memory usage from free output: "Mem:           7.8Gi       1.8Gi       3.5Gi       174Mi       2.8Gi       6.0Gi"
+     */
+    static double parseMemoryUsage(String memoryData, ServerHealthSummary summary) {
         if (memoryData == null) return 0.0;
-        try {
-            // Parse free output: "Mem:           7.8Gi       1.8Gi       3.5Gi       174Mi       2.8Gi       6.0Gi"
-            String[] lines = memoryData.split("\n");
-            for (String line : lines) {
-                if (line.startsWith("Mem:")) {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 3) {
-                        // parts[0] = "Mem:"
-                        // parts[1] = total
-                        // parts[2] = used
-                        String totalStr = parts[1];
-                        String usedStr = parts[2];
-
-                        // Store raw memory values for display
-                        summary.setTotalMemory(totalStr);
-                        summary.setUsedMemory(usedStr);
-
-                        double total = parseSize(totalStr);
-                        double used = parseSize(usedStr);
-                        return (used / total) * 100;
-                    }
+        CommandOutputScanner scanner = new CommandOutputScanner(memoryData);
+        while (scanner.nextLine()) {
+            if (scanner.lineStartsWith("Mem:") && scanner.skipTokens(2)) {
+                // Total, then used
+                double total = scanner.tokenAsSize();
+                summary.setTotalMemory(scanner.token());
+                if (!scanner.nextToken()) {
+                    break;
                 }
+                double used = scanner.tokenAsSize();
+                summary.setUsedMemory(scanner.token());
+                return percent(used, total);
             }
-        } catch (Exception e) {
-            log.error("Error parsing memory usage", e);
         }
         return 0.0;
     }
 
-    private double parseDiskUsage(String diskData, ServerHealthSummary summary) {
+    /**
+     * Disk usage of the root filesystem from df output
+     * <pre>
+     * Filesystem      Size  Used Avail Use% Mounted on
+     * /dev/sda        157G   12G  138G   8% /
+     * </pre>
+     * Use% if present, else used / size.
+     */
+    static double parseDiskUsage(String diskData, ServerHealthSummary summary) {
         if (diskData == null) return 0.0;
-        try {
-            // Parse df output for root filesystem (/)
-            // Example: /dev/sda        157G   12G  138G   8% /
-            String[] lines = diskData.split("\n");
-            for (String line : lines) {
-                if (line.contains("/dev/") && line.trim().endsWith("/")) {
-                    String[] parts = line.trim().split("\\s+");
-                    if (parts.length >= 5) {
-                        // Extract used and available disk values
-                        // Format: Filesystem Size Used Avail Use% Mounted
-                        // parts[1] = Size, parts[2] = Used, parts[3] = Available, parts[4] = Use%
-                        String usedStr = parts[2];
-                        String totalStr = parts[1];
-                        summary.setUsedDisk(usedStr);
-                        summary.setTotalDisk(totalStr);
-
-                        // Find the percentage column (before the mount point)
-                        for (int i = 0; i < parts.length - 1; i++) {
-                            if (parts[i].endsWith("%")) {
-                                String usageStr = parts[i].replace("%", "");
-                                return Double.parseDouble(usageStr);
-                            }
-                        }
-                    }
+        CommandOutputScanner scanner = new CommandOutputScanner(diskData);
+        while (scanner.nextLine()) {
+            if (!scanner.lineContains("/dev/") || scanner.tokenCount() < 5 || !isRootMount(scanner)) {
+                continue;
+            }
+            scanner.rewindLine();
+            scanner.skipTokens(2);
+            double total = scanner.tokenAsSize();
+            summary.setTotalDisk(scanner.token());
+            scanner.nextToken();
+            double used = scanner.tokenAsSize();
+            summary.setUsedDisk(scanner.token());
+            while (scanner.nextToken()) {
+                if (scanner.tokenEndsWith('%')) {
+                    double usePercent = scanner.tokenAsNumber();
+                    return Double.isNaN(usePercent) ? 0.0 : usePercent;
                 }
             }
-        } catch (Exception e) {
-            log.error("Error parsing disk usage", e);
+            return percent(used, total);
         }
         return 0.0;
     }
 
-    private void parseUptime(String uptimeData, ServerHealthSummary summary) {
+    /**
+     * used / total in percent; 0 when either size could not be read
+     */
+    private static double percent(double used, double total) {
+        double percent = (used / total) * 100;
+        return total > 0 && !Double.isNaN(percent) ? percent : 0.0;
+    }
+
+    private static boolean isRootMount(CommandOutputScanner scanner) {
+        boolean root = false;
+        while (scanner.nextToken()) {
+            root = scanner.tokenEquals("/");
+        }
+        return root;
+    }
+
+    /**
+     * Uptime and 1-minute load average from uptime output, Linux and BSD style:
+     * " 10:14:33 up 12 days,  3:04,  2 users,  load average: 0.08, 0.03, 0.01"
+     * "21:00 up 5 days, 6:13, 6 users, load averages: 9.80 12.14 16.29"
+     */
+    static void parseUptime(String uptimeData, ServerHealthSummary summary) {
+        summary.setUptime("Unknown");
         if (uptimeData == null) {
-            summary.setUptime("Unknown");
             return;
         }
-        try {
-            // Parse uptime output: "21:00 up 5 days, 6:13, 6 users, load averages: 9.80 12.14 16.29"
-            // Extract the part between "up" and the number of users/load
-            Pattern pattern = Pattern.compile("up\\s+(.+?),\\s+\\d+\\s+user");
-            Matcher matcher = pattern.matcher(uptimeData);
-            if (matcher.find()) {
-                String uptime = matcher.group(1).trim();
-                summary.setUptime(uptime);
-            } else {
-                // Fallback: try to extract everything after "up"
-                Pattern fallbackPattern = Pattern.compile("up\\s+(.+?)(?:,\\s+\\d+\\s+user|$)");
-                Matcher fallbackMatcher = fallbackPattern.matcher(uptimeData);
-                if (fallbackMatcher.find()) {
-                    String uptime = fallbackMatcher.group(1).trim();
+        CommandOutputScanner scanner = new CommandOutputScanner(uptimeData);
+        while (scanner.nextLine()) {
+            int uptimeStart = -1;
+            int uptimeEnd = -1;
+            // Start of the previous token if it is a count ("6" of "6 users")
+            int countStart = -1;
+            while (scanner.nextToken()) {
+                if (uptimeStart < 0) {
+                    if (scanner.tokenEquals("up")) {
+                        uptimeStart = scanner.tokenEnd();
+                    }
+                } else if (uptimeEnd < 0 && scanner.tokenStartsWith("user") && countStart >= 0) {
+                    // The uptime ends before the user count
+                    uptimeEnd = countStart;
+                } else if (scanner.tokenStartsWith("load")) {
+                    if (uptimeEnd < 0) {
+                        uptimeEnd = scanner.tokenStart();
+                    }
+                } else if (scanner.tokenStartsWith("average")) {
+                    if (scanner.nextToken()) {
+                        double load = scanner.tokenAsNumber();
+                        summary.setLoadAverage(Double.isNaN(load) ? 0.0 : load);
+                    }
+                    break;
+                }
+                countStart = scanner.tokenIsNumeric() && !scanner.tokenContains(":") ? scanner.tokenStart() : -1;
+            }
+            if (uptimeStart >= 0) {
+                String uptime = scanner.slice(uptimeStart, uptimeEnd >= 0 ? uptimeEnd : scanner.tokenEnd());
+                while (uptime.endsWith(",")) {
+                    uptime = uptime.substring(0, uptime.length() - 1).trim();
+                }
+                if (!uptime.isEmpty()) {
                     summary.setUptime(uptime);
-                } else {
-                    summary.setUptime("Unknown");
                 }
+                return;
             }
-        } catch (Exception e) {
-            log.error("Error parsing uptime", e);
-            summary.setUptime("Unknown");
         }
     }
 
-    private double parseSize(String sizeStr) {
-        if (sizeStr.endsWith("Gi")) {
-            return Double.parseDouble(sizeStr.replace("Gi", "")) * 1024 * 1024 * 1024;
-        } else if (sizeStr.endsWith("Mi")) {
-            return Double.parseDouble(sizeStr.replace("Mi", "")) * 1024 * 1024;
-        } else if (sizeStr.endsWith("Ki")) {
-            return Double.parseDouble(sizeStr.replace("Ki", "")) * 1024;
-        } else {
-            // Assume bytes
-            return Double.parseDouble(sizeStr.replaceAll("[^\\d.]", ""));
-        }
-    }
-
-    /**
-     * Create HTTP headers with API key
-     */
-    private HttpEntity<String> createRequestEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Content-Type", "application/json");
-        if (deployerProperties.getApiKey() != null && !deployerProperties.getApiKey().isEmpty()) {
-            headers.set("X-API-Key", deployerProperties.getApiKey());
-        }
-        return new HttpEntity<>(headers);
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
     }
 }
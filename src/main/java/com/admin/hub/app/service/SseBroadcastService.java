@@ -1,75 +1,131 @@
 package com.admin.hub.app.service;
 
+import com.admin.hub.app.client.DeployerCircuitBreaker;
+import com.admin.hub.app.config.MonitoringProperties;
 import com.admin.hub.app.controller.DeploymentController;
 import com.admin.hub.app.controller.ServerController;
 import com.admin.hub.app.dto.ApplicationConfiguration;
 import com.admin.hub.app.dto.ServerHealthSummary;
+import com.admin.hub.app.event.SseSubscriberConnectedEvent;
+import com.admin.hub.app.service.AppLivenessProbe.ProbeStatus;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
-@EnableScheduling
 @RequiredArgsConstructor
 @Slf4j
 public class SseBroadcastService {
 
     private final DeploymentService deploymentService;
     private final ServerService serverService;
+    private final AppLivenessProbe appLivenessProbe;
+    private final DeployerCircuitBreaker circuitBreaker;
     private final DeploymentController deploymentController;
     private final ServerController serverController;
+    private final MonitoringProperties monitoringProperties;
+    private final PollingScheduler pollingScheduler;
+    private final HealthHistoryStore healthHistoryStore;
+
+    private PollingScheduler.Job healthJob;
+    private PollingScheduler.Job serverJob;
+
+    // System.nanoTime() of the last poll, used to throttle polling while nobody is subscribed
+    private static final long NEVER = Long.MIN_VALUE;
+    private volatile long lastHealthPoll = NEVER;
+    private volatile long lastServerPoll = NEVER;
 
     private static final String TIMESTAMP_KEY = "timestamp";
     private static final String HEALTHY_KEY = "healthy";
     private static final String MESSAGE_KEY = "message";
 
     /**
-     * Broadcast health and app status updates every 5 seconds
+     * Each stream is polled on its own thread, slow app probes can not hold up the server health stream
+     */
+    @PostConstruct
+    void registerJobs() {
+        healthJob = pollingScheduler.register("deployment-health", this::broadcastHealthAndAppsStatus);
+        serverJob = pollingScheduler.register("server-health", this::broadcastServerHealth);
+    }
+
+    /**
+     * Poll right away when the first client subscribes instead of waiting for the next (idle) tick
+     */
+    @EventListener
+    public void onSubscriberConnected(SseSubscriberConnectedEvent event) {
+        log.debug("First subscriber on {} stream, polling now", event.stream());
+        switch (event.stream()) {
+            case DEPLOYMENT_HEALTH -> healthJob.trigger();
+            case SERVER_HEALTH -> serverJob.trigger();
+        }
+    }
+
+    /**
+     * Broadcast health and app status updates every monitoring.polling.interval while clients are subscribed,
+     * every monitoring.polling.idle-interval otherwise
      */
-    @Scheduled(fixedRate = 5000)
     public void broadcastHealthAndAppsStatus() {
+        if (!deploymentController.hasSubscribers() && !idlePollDue(lastHealthPoll)) {
+            return;
+        }
+        lastHealthPoll = System.nanoTime();
         try {
             // Check deployment service health
             Map<String, Object> healthData = new HashMap<>();
             boolean isHealthy = deploymentService.healthCheck();
+            DeployerCircuitBreaker.Snapshot circuit = circuitBreaker.snapshot();
             healthData.put(HEALTHY_KEY, isHealthy);
-            healthData.put(MESSAGE_KEY, isHealthy ? "Deployer service is healthy" : "Deployer service is unavailable");
+            healthData.put(MESSAGE_KEY, isHealthy ? "Deployer service is healthy" : unavailableMessage(circuit));
+            healthData.put("circuitBreaker", circuit);
             healthData.put(TIMESTAMP_KEY, System.currentTimeMillis());
 
             deploymentController.broadcastHealthUpdate(healthData);
 
-            // Get and broadcast app live status
+            // Resolve the application list once, then probe all app URLs in parallel.
+            // Every probe is deadline bounded, late probes are reported as "timeout".
             Map<String, Object> appStatusData = new HashMap<>();
             List<ApplicationConfiguration> applications = deploymentService.getApplications();
+            Map<String, ProbeStatus> probeStatuses = appLivenessProbe.probeAll(applications).join();
+            healthHistoryStore.recordProbes(System.currentTimeMillis(), probeStatuses);
             Map<String, Boolean> appStatuses = new HashMap<>();
-
-            for (ApplicationConfiguration app : applications) {
-                if (app.getName() != null && app.getApplicationUrl() != null) {
-                    boolean isLive = deploymentService.checkAppLiveStatus(app.getName());
-                    appStatuses.put(app.getName(), isLive);
-                }
-            }
+            probeStatuses.forEach((name, status) -> appStatuses.put(name, status == ProbeStatus.UP));
 
             appStatusData.put("appStatuses", appStatuses);
+            appStatusData.put("appProbeStatuses", probeStatuses);
             appStatusData.put(TIMESTAMP_KEY, System.currentTimeMillis());
 
             deploymentController.broadcastAppStatusUpdate(appStatusData);
+        } catch (IllegalStateException e) {
+            // No application configuration available yet (deployer unreachable), already logged by the registry
+            log.debug("Skipping app status broadcast: {}", e.getMessage());
         } catch (Exception e) {
             log.error("Error broadcasting health and app status updates", e);
         }
     }
 
+    private String unavailableMessage(DeployerCircuitBreaker.Snapshot circuit) {
+        if (circuit.state() == DeployerCircuitBreaker.State.OPEN) {
+            return "Deployer service is unavailable, retrying in " + Math.max(1, (circuit.retryInMillis() + 999) / 1000) + "s";
+        }
+        return "Deployer service is unavailable";
+    }
+
     /**
-     * Broadcast server health and running services updates every 5 seconds
+     * Broadcast server health and running services updates every monitoring.polling.interval while clients
+     * are subscribed, every monitoring.polling.idle-interval otherwise
      */
-    @Scheduled(fixedRate = 5000)
     public void broadcastServerHealth() {
+        if (!serverController.hasSubscribers() && !idlePollDue(lastServerPoll)) {
+            return;
+        }
+        lastServerPoll = System.nanoTime();
         try {
             Map<String, Object> serverHealthData = new HashMap<>();
 
@@ -95,5 +151,15 @@ public class SseBroadcastService {
             log.error("Error broadcasting server health updates", e);
         }
     }
-}
 
+    /**
+     * Whether an unobserved job should still poll to keep the read caches warm
+     */
+    private boolean idlePollDue(long lastPoll) {
+        Duration idleInterval = monitoringProperties.getPolling().getIdleInterval();
+        if (idleInterval.isZero()) {
+            return false;
+        }
+        return lastPoll == NEVER || System.nanoTime() - lastPoll >= idleInterval.toNanos();
+    }
+}
@@ -0,0 +1,158 @@
+package com.admin.hub.app.service;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Delta encoder for one SSE event stream (health, appStatus, serverHealth).
+ * Every broadcast gets the next version number. Subscribers receive either a keyframe with the full state
+ * or a delta against the previous version:
+ * <pre>
+ * {"version": 7, "keyframe": true,  "data": {...full state...}}
+ * {"version": 8, "keyframe": false, "baseVersion": 7, "data": {...patch...}}
+ * </pre>
+ * The patch is shaped like a JSON merge patch (RFC 7386) with one difference: changed fields carry their new value,
+ * null included, and the fields removed from an object are listed in its "$removed" array instead of being set to
+ * null, so a value that became null is not mistaken for a deletion. Nested objects are patched recursively.
+ * Lists registered as keyed (e.g. runningServices by "name") are patched per entry with
+ * {"key": "name", "upsert": [...], "remove": [...]}; other lists are replaced.
+ * A keyframe goes out on connect and every keyframe interval. Clients that detect a gap reconnect and resync
+ * from the cached keyframe sent on connect.
+ * Frames are serialized once into an {@link SseFrame} shared by all subscribers; the current keyframe is
+ * cached so late joiners do not re-encode it.
+ * Callers synchronize on the stream so a new subscriber's keyframe can not interleave with a broadcast.
+ */
+public class SseDeltaStream implements SseStream {
+
+    // Name of the array listing the fields removed from an object patch
+    private static final String REMOVED = "$removed";
+
+    private final ObjectMapper objectMapper;
+    private final String eventName;
+    private final Map<String, String> keyedLists;
+    private final Supplier<Duration> keyframeInterval;
+
+    private long version;
+    private ObjectNode state;
+    private long lastKeyframeAt;
+    private SseFrame keyframe;
+
+    public SseDeltaStream(ObjectMapper objectMapper, String eventName, Map<String, String> keyedLists, Supplier<Duration> keyframeInterval) {
+        this.objectMapper = objectMapper;
+        this.eventName = eventName;
+        this.keyedLists = keyedLists;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    @Override
+    public String eventName() {
+        return eventName;
+    }
+
+    /**
+     * Advance the stream to a new state and return the frame to send to current subscribers
+     */
+    public synchronized SseFrame next(Map<String, Object> data) {
+        ObjectNode previous = state;
+        state = objectMapper.valueToTree(data);
+        version++;
+        keyframe = null;
+
+        long now = System.nanoTime();
+        if (previous == null || now - lastKeyframeAt >= keyframeInterval.get().toNanos()) {
+            lastKeyframeAt = now;
+            return keyframe();
+        }
+
+        ObjectNode delta = objectMapper.createObjectNode();
+        delta.put("version", version);
+        delta.put("keyframe", false);
+        delta.put("baseVersion", version - 1);
+        delta.set("data", diff(previous, state));
+        return SseFrame.of(version, eventName, objectMapper.writeValueAsBytes(delta));
+    }
+
+    /**
+     * Full state at the current version, or null if nothing has been broadcast yet
+     */
+    @Override
+    public synchronized SseFrame keyframe() {
+        if (state == null) {
+            return null;
+        }
+        if (keyframe == null) {
+            ObjectNode frame = objectMapper.createObjectNode();
+            frame.put("version", version);
+            frame.put("keyframe", true);
+            frame.set("data", state);
+            keyframe = SseFrame.of(version, eventName, objectMapper.writeValueAsBytes(frame));
+        }
+        return keyframe;
+    }
+
+    private ObjectNode diff(ObjectNode previous, ObjectNode next) {
+        ObjectNode patch = objectMapper.createObjectNode();
+        for (Map.Entry<String, JsonNode> property : next.properties()) {
+            String name = property.getKey();
+            JsonNode value = property.getValue();
+            JsonNode old = previous.get(name);
+            if (old == null || old.isNull() != value.isNull()) {
+                patch.set(name, value);
+            } else if (old.equals(value)) {
+                continue;
+            } else if (old.isObject() && value.isObject()) {
+                patch.set(name, diff((ObjectNode) old, (ObjectNode) value));
+            } else if (old.isArray() && value.isArray() && keyedLists.containsKey(name)) {
+                patch.set(name, diffList(keyedLists.get(name), (ArrayNode) old, (ArrayNode) value));
+            } else {
+                patch.set(name, value);
+            }
+        }
+        ArrayNode removed = null;
+        for (String name : previous.propertyNames()) {
+            if (!next.has(name)) {
+                if (removed == null) {
+                    removed = patch.putArray(REMOVED);
+                }
+                removed.add(name);
+            }
+        }
+        return patch;
+    }
+
+    private ObjectNode diffList(String key, ArrayNode previous, ArrayNode next) {
+        Map<String, JsonNode> oldEntries = index(key, previous);
+        Map<String, JsonNode> newEntries = index(key, next);
+
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.put("key", key);
+        ArrayNode upsert = patch.putArray("upsert");
+        ArrayNode remove = patch.putArray("remove");
+        newEntries.forEach((id, entry) -> {
+            if (!entry.equals(oldEntries.get(id))) {
+                upsert.add(entry);
+            }
+        });
+        oldEntries.keySet().forEach(id -> {
+            if (!newEntries.containsKey(id)) {
+                remove.add(id);
+            }
+        });
+        return patch;
+    }
+
+    private static Map<String, JsonNode> index(String key, ArrayNode list) {
+        Map<String, JsonNode> entries = new LinkedHashMap<>();
+        for (JsonNode entry : list) {
+            entries.put(entry.path(key).asString(), entry);
+        }
+        return entries;
+    }
+}
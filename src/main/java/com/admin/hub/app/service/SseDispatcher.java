@@ -0,0 +1,233 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fans SSE frames out to subscribers through their bounded queues.
+ * The broadcaster only encodes the frame and enqueues it; monitoring.sse.writer-threads writer threads copy
+ * queued frames onto the connections, so a stalled browser never holds up the scheduler or the other clients:
+ * a watchdog evicts subscribers whose write has been blocked for monitoring.sse.write-timeout and an extra writer
+ * stands in for each blocked one until its write fails.
+ * Exposes sse.subscribers, sse.queue.depth, sse.queue.depth.max, sse.subscriber.resyncs and
+ * sse.subscriber.evictions (tagged by reason) and sse.writers.stalled as metrics, and per stream (tag "stream", the event name)
+ * sse.stream.subscribers and the sse.broadcast.duration histogram.
+ */
+@Component
+@Slf4j
+public class SseDispatcher {
+
+    private final MonitoringProperties monitoringProperties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService watchdog;
+    // Writers started in place of writers blocked on evicted, stalled connections
+    private volatile int stalledWriters;
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter resyncs;
+    private final Map<SseSubscriber.EvictionReason, Counter> evictions = new EnumMap<>(SseSubscriber.EvictionReason.class);
+    private final Map<String, Timer> broadcastTimers = new ConcurrentHashMap<>();
+
+    public SseDispatcher(MonitoringProperties monitoringProperties, MeterRegistry meterRegistry) {
+        this.monitoringProperties = monitoringProperties;
+        this.meterRegistry = meterRegistry;
+
+        int threads = monitoringProperties.getSse().getWriterThreads();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sse-writer-");
+        threadFactory.setDaemon(true);
+        this.writers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        this.writers.allowCoreThreadTimeOut(true);
+
+        CustomizableThreadFactory watchdogThreadFactory = new CustomizableThreadFactory("sse-watchdog-");
+        watchdogThreadFactory.setDaemon(true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(watchdogThreadFactory);
+        this.watchdog.scheduleWithFixedDelay(this::evictStalled, 1, 1, TimeUnit.SECONDS);
+
+        Gauge.builder("sse.subscribers", subscribers, Set::size)
+                .description("Connected SSE subscribers")
+                .register(meterRegistry);
+        Gauge.builder("sse.writers.stalled", this, dispatcher -> dispatcher.stalledWriters)
+                .description("SSE writer threads blocked on the connection of an evicted subscriber")
+                .register(meterRegistry);
+        Gauge.builder("sse.queue.depth", this, SseDispatcher::totalQueueDepth)
+                .description("Frames waiting in all SSE subscriber queues")
+                .register(meterRegistry);
+        Gauge.builder("sse.queue.depth.max", this, SseDispatcher::maxQueueDepth)
+                .description("Frames waiting in the fullest SSE subscriber queue")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("sse.subscriber.resyncs")
+                .description("Subscriber queue overflows answered by skipping to the latest keyframe")
+                .register(meterRegistry);
+        for (SseSubscriber.EvictionReason reason : SseSubscriber.EvictionReason.values()) {
+            evictions.put(reason, Counter.builder("sse.subscriber.evictions")
+                    .description("Subscribers disconnected because they could not keep up")
+                    .tag("reason", reason.value())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Wrap a new connection; it receives frames once it joins a stream
+     */
+    public SseSubscriber open(SseEmitter emitter) {
+        SseSubscriber subscriber = new SseSubscriber(emitter, this);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Add the subscriber to a stream and queue the current keyframe without a broadcast slipping in between
+     */
+    public void join(SseSubscriber subscriber, SseStream stream, Collection<SseSubscriber> streamSubscribers) {
+        join(subscriber, stream, streamSubscribers, stream::keyframe);
+    }
+
+    /**
+     * Add the subscriber to a stream and queue the given first frame (null for none), e.g. a resume point
+     */
+    public void join(SseSubscriber subscriber, SseStream stream, Collection<SseSubscriber> streamSubscribers,
+                     Supplier<SseFrame> firstFrame) {
+        // Registers the stream's meters with its first subscriber
+        broadcastTimer(stream);
+        synchronized (stream) {
+            subscriber.follow(stream);
+            streamSubscribers.add(subscriber);
+            SseFrame frame = firstFrame.get();
+            if (frame != null) {
+                subscriber.offer(stream, frame);
+            }
+        }
+    }
+
+    /**
+     * Advance the stream and queue the frame for every subscriber. Serialized once, never blocks on a connection.
+     */
+    public void broadcast(SseDeltaStream stream, Map<String, Object> data, Collection<SseSubscriber> streamSubscribers) {
+        broadcast(stream, () -> stream.next(data), streamSubscribers);
+    }
+
+    /**
+     * Produce the next frame under the stream lock and queue it for every subscriber; a null frame is not sent
+     */
+    public void broadcast(SseStream stream, Supplier<SseFrame> nextFrame, Collection<SseSubscriber> streamSubscribers) {
+        long start = System.nanoTime();
+        synchronized (stream) {
+            SseFrame frame = nextFrame.get();
+            if (frame != null) {
+                for (SseSubscriber subscriber : streamSubscribers) {
+                    subscriber.offer(stream, frame);
+                }
+            }
+        }
+        streamSubscribers.removeIf(SseSubscriber::isClosed);
+        broadcastTimer(stream).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Broadcast timer of the stream; the first call for an event name also registers its subscriber gauge
+     */
+    private Timer broadcastTimer(SseStream stream) {
+        return broadcastTimers.computeIfAbsent(stream.eventName(), eventName -> {
+            Gauge.builder("sse.stream.subscribers", this, dispatcher -> dispatcher.countFollowing(eventName))
+                    .description("Connected SSE subscribers following the stream")
+                    .tag("stream", eventName)
+                    .register(meterRegistry);
+            return Timer.builder("sse.broadcast.duration")
+                    .description("Time taken to produce a stream's frame and queue it for every subscriber")
+                    .tag("stream", eventName)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(1))
+                    .register(meterRegistry);
+        });
+    }
+
+    MonitoringProperties.Sse config() {
+        return monitoringProperties.getSse();
+    }
+
+    void execute(Runnable drain) {
+        writers.execute(drain);
+    }
+
+    synchronized void addWriter() {
+        stalledWriters++;
+        resizeWriters();
+    }
+
+    synchronized void removeWriter() {
+        stalledWriters--;
+        resizeWriters();
+    }
+
+    private void resizeWriters() {
+        int size = monitoringProperties.getSse().getWriterThreads() + stalledWriters;
+        // The core size may never exceed the maximum
+        if (size > writers.getMaximumPoolSize()) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    private void evictStalled() {
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.evictIfStalled();
+        }
+    }
+
+    void resynced() {
+        resyncs.increment();
+    }
+
+    void evicted(SseSubscriber subscriber, SseSubscriber.EvictionReason reason) {
+        subscribers.remove(subscriber);
+        evictions.get(reason).increment();
+        log.warn("Evicted SSE subscriber ({}), {} still connected", reason.value(), subscribers.size());
+    }
+
+    void closed(SseSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private double countFollowing(String eventName) {
+        return subscribers.stream().filter(subscriber -> subscriber.follows(eventName)).count();
+    }
+
+    private double totalQueueDepth() {
+        return subscribers.stream().mapToInt(SseSubscriber::queueDepth).sum();
+    }
+
+    private double maxQueueDepth() {
+        return subscribers.stream().mapToInt(SseSubscriber::queueDepth).max().orElse(0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        writers.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.admin.hub.app.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * A complete SSE event (id, event, data, retry) encoded once into bytes and shared by every subscriber.
+ * Writing it to an emitter copies bytes to the socket instead of running Jackson per subscriber.
+ */
+public final class SseFrame {
+
+    private static final long RECONNECT_TIME_MILLIS = 1000;
+
+    private final byte[] bytes;
+    private final Set<ResponseBodyEmitter.DataWithMediaType> items;
+
+    private SseFrame(byte[] bytes) {
+        this.bytes = bytes;
+        this.items = Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    /**
+     * Encode an event whose data is already serialized JSON (a single line, Jackson never emits raw newlines)
+     */
+    public static SseFrame of(long id, String eventName, byte[] json) {
+        return of(Long.toString(id), eventName, json);
+    }
+
+    /**
+     * Encode an event with a non numeric id (ids must not contain line breaks)
+     */
+    public static SseFrame of(String id, String eventName, byte[] json) {
+        byte[] head = ("id:" + id + "\nevent:" + eventName + "\ndata:").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\nretry:" + RECONNECT_TIME_MILLIS + "\n\n").getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[head.length + json.length + tail.length];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(json, 0, frame, head.length, json.length);
+        System.arraycopy(tail, 0, frame, head.length + json.length, tail.length);
+        return new SseFrame(frame);
+    }
+
+    public void writeTo(SseEmitter emitter) throws IOException {
+        emitter.send(items);
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,20 @@
+package com.admin.hub.app.service;
+
+/**
+ * A source of SSE frames that subscribers can (re)join at any time.
+ * Callers synchronize on the stream while producing a frame and queueing it, so frames of one stream reach
+ * every subscriber in order and a joining subscriber's first frame can not interleave with a broadcast.
+ */
+public interface SseStream {
+
+    /**
+     * SSE event name of the stream's frames, also tags its metrics
+     */
+    String eventName();
+
+    /**
+     * Frame carrying the complete current state, sent on connect and after a subscriber fell behind,
+     * or null while the stream has no state yet
+     */
+    SseFrame keyframe();
+}
@@ -0,0 +1,250 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.config.MonitoringProperties;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One connected SSE client with its own bounded outbound queue.
+ * Broadcasts only enqueue (under the stream lock, so frames of a stream stay in version order) and a writer
+ * thread of the {@link SseDispatcher} drains the queue onto the connection. A client that can not keep up
+ * never holds up the broadcaster or the other clients:
+ * <ul>
+ *   <li>when its queue is full the backlog is dropped and every followed stream resyncs from its latest keyframe</li>
+ *   <li>after monitoring.sse.max-overflows overflows in a row, or when a single write has been blocked for longer
+ *   than monitoring.sse.write-timeout, the client is evicted and its connection completed (the browser reconnects)</li>
+ *   <li>a write blocked on a stalled connection can not be aborted (the emitter is locked while it sends, until
+ *   the container's socket write timeout fails it), so on eviction the dispatcher starts a writer in place of the
+ *   blocked one and stops it once the write returns</li>
+ * </ul>
+ */
+@Slf4j
+public final class SseSubscriber {
+
+    public enum EvictionReason {
+        OVERFLOW, STALLED;
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final SseEmitter emitter;
+    private final SseDispatcher dispatcher;
+
+    // Guarded by this
+    private final List<SseStream> streams = new ArrayList<>();
+    private final Deque<SseFrame> queue = new ArrayDeque<>();
+    private final Set<SseStream> resync = new LinkedHashSet<>();
+    private boolean draining;
+    private boolean writing;
+    private long writeStartedAt;
+    private int overflows;
+    private boolean closed;
+    private boolean evicted;
+    // Evicted while a write was blocked; the dispatcher runs an extra writer until that write returns
+    private boolean stalled;
+
+    SseSubscriber(SseEmitter emitter, SseDispatcher dispatcher) {
+        this.emitter = emitter;
+        this.dispatcher = dispatcher;
+    }
+
+    synchronized void follow(SseStream stream) {
+        streams.add(stream);
+    }
+
+    synchronized boolean follows(String eventName) {
+        for (SseStream stream : streams) {
+            if (stream.eventName().equals(eventName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queue a frame of the given stream. Callers hold the stream lock.
+     */
+    void offer(SseStream stream, SseFrame frame) {
+        EvictionReason eviction = null;
+        synchronized (this) {
+            if (closed || resync.contains(stream)) {
+                // Resyncing streams skip straight to the keyframe fetched by the writer
+                return;
+            }
+            MonitoringProperties.Sse config = dispatcher.config();
+            if (writing && System.nanoTime() - writeStartedAt > config.getWriteTimeout().toNanos()) {
+                eviction = EvictionReason.STALLED;
+            } else if (queue.size() >= config.getQueueCapacity()) {
+                queue.clear();
+                if (++overflows >= config.getMaxOverflows()) {
+                    eviction = EvictionReason.OVERFLOW;
+                } else {
+                    resync.addAll(streams);
+                    dispatcher.resynced();
+                }
+            } else {
+                queue.add(frame);
+            }
+
+            if (eviction != null) {
+                closed = true;
+                evicted = true;
+                resync.clear();
+                if (eviction == EvictionReason.STALLED) {
+                    stalled();
+                }
+            }
+            scheduleDrain();
+        }
+        if (eviction != null) {
+            dispatcher.evicted(this, eviction);
+        }
+    }
+
+    /**
+     * Evict the subscriber if its current write has been blocked for longer than monitoring.sse.write-timeout.
+     * Run by the dispatcher's watchdog, so a stall is caught even when no new frame is offered.
+     */
+    void evictIfStalled() {
+        synchronized (this) {
+            if (closed || !writing || System.nanoTime() - writeStartedAt <= dispatcher.config().getWriteTimeout().toNanos()) {
+                return;
+            }
+            closed = true;
+            evicted = true;
+            queue.clear();
+            resync.clear();
+            stalled();
+        }
+        dispatcher.evicted(this, EvictionReason.STALLED);
+    }
+
+    // Called with the lock held, so the writer is always added before the blocked write can release it
+    private void stalled() {
+        stalled = true;
+        dispatcher.addWriter();
+    }
+
+    /**
+     * Stop queueing, e.g. once the connection completed, timed out or failed
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            resync.clear();
+        }
+        dispatcher.closed(this);
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    private void scheduleDrain() {
+        if (!draining && (evicted || !queue.isEmpty() || !resync.isEmpty())) {
+            draining = true;
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    /**
+     * Writer loop, at most one per subscriber runs at a time
+     */
+    private void drain() {
+        while (true) {
+            SseFrame frame;
+            SseStream stale = null;
+            synchronized (this) {
+                if (closed) {
+                    draining = false;
+                    queue.clear();
+                    if (!evicted) {
+                        return;
+                    }
+                    evicted = false;
+                    frame = null;
+                } else {
+                    frame = queue.poll();
+                    if (frame == null) {
+                        Iterator<SseStream> pending = resync.iterator();
+                        if (!pending.hasNext()) {
+                            // Caught up
+                            draining = false;
+                            overflows = 0;
+                            return;
+                        }
+                        stale = pending.next();
+                    }
+                }
+            }
+            if (frame == null && stale == null) {
+                // Evicted: complete outside of any lock, a stalled connection may block here
+                completeEvicted();
+                return;
+            }
+            if (stale != null) {
+                // Same lock order as broadcasts (stream, then subscriber): later frames of the stream are
+                // queued after this keyframe
+                synchronized (stale) {
+                    frame = stale.keyframe();
+                    synchronized (this) {
+                        resync.remove(stale);
+                    }
+                }
+                if (frame == null) {
+                    continue;
+                }
+            }
+            write(frame);
+        }
+    }
+
+    private void write(SseFrame frame) {
+        synchronized (this) {
+            writing = true;
+            writeStartedAt = System.nanoTime();
+        }
+        try {
+            frame.writeTo(emitter);
+        } catch (Exception e) {
+            log.debug("Error sending SSE frame, dropping subscriber", e);
+            close();
+        } finally {
+            synchronized (this) {
+                writing = false;
+                if (stalled) {
+                    stalled = false;
+                    dispatcher.removeWriter();
+                }
+            }
+        }
+    }
+
+    private void completeEvicted() {
+        try {
+            emitter.complete();
+        } catch (Exception e) {
+            log.debug("Error completing evicted SSE subscriber", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.admin.hub.app.client;
+
+import com.admin.hub.app.config.DeployerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Outcomes of calls that started in an older state of the breaker must not move its current state
+ */
+class DeployerCircuitBreakerTest {
+
+    private final DeployerCircuitBreaker circuitBreaker;
+
+    DeployerCircuitBreakerTest() {
+        DeployerProperties deployerProperties = new DeployerProperties();
+        deployerProperties.getCircuitBreaker().setFailureThreshold(2);
+        deployerProperties.getCircuitBreaker().setOpenDuration(Duration.ZERO);
+        circuitBreaker = new DeployerCircuitBreaker(deployerProperties);
+    }
+
+    @Test
+    void lateSuccessFromBeforeOpeningDoesNotCloseCircuit() {
+        DeployerCircuitBreaker.Permit slow = circuitBreaker.tryAcquire();
+        open();
+
+        circuitBreaker.onSuccess(slow);
+
+        assertEquals(DeployerCircuitBreaker.State.OPEN, circuitBreaker.snapshot().state());
+    }
+
+    @Test
+    void lateFailureFromBeforeOpeningDoesNotReopenHalfOpenCircuit() {
+        DeployerCircuitBreaker.Permit slow = circuitBreaker.tryAcquire();
+        open();
+        DeployerCircuitBreaker.Permit probe = circuitBreaker.tryAcquire();
+        assertNotNull(probe);
+
+        circuitBreaker.recordFailure(slow, "timeout");
+        assertEquals(DeployerCircuitBreaker.State.HALF_OPEN, circuitBreaker.snapshot().state());
+        assertNull(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess(probe);
+        assertEquals(DeployerCircuitBreaker.State.CLOSED, circuitBreaker.snapshot().state());
+    }
+
+    @Test
+    void lateReleaseFromEarlierProbeDoesNotGiveUpCurrentProbe() {
+        open();
+        DeployerCircuitBreaker.Permit firstProbe = circuitBreaker.tryAcquire();
+        circuitBreaker.release(firstProbe);
+        DeployerCircuitBreaker.Permit secondProbe = circuitBreaker.tryAcquire();
+        assertNotNull(secondProbe);
+
+        circuitBreaker.release(firstProbe);
+
+        assertEquals(DeployerCircuitBreaker.State.HALF_OPEN, circuitBreaker.snapshot().state());
+        assertNull(circuitBreaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 2; i++) {
+            circuitBreaker.recordFailure(circuitBreaker.tryAcquire(), "connection refused");
+        }
+        assertEquals(DeployerCircuitBreaker.State.OPEN, circuitBreaker.snapshot().state());
+    }
+}
@@ -0,0 +1,88 @@
+package com.admin.hub.app.controller;
+
+import com.admin.hub.app.client.DeployerAsyncClient;
+import com.admin.hub.app.client.DeployerCircuitBreaker;
+import com.admin.hub.app.client.DeployerMetrics;
+import com.admin.hub.app.client.DeployerReadCache;
+import com.admin.hub.app.config.DeployerProperties;
+import com.admin.hub.app.dto.DeploymentResponse;
+import com.admin.hub.app.service.AppLivenessProbe;
+import com.admin.hub.app.service.ApplicationRegistry;
+import com.admin.hub.app.service.DeploymentService;
+import com.admin.hub.app.service.HealthHistoryStore;
+import com.admin.hub.app.service.LogBufferService;
+import com.admin.hub.app.service.LogSearchService;
+import com.admin.hub.app.service.LogTailService;
+import com.admin.hub.app.service.SseDeltaStream;
+import com.admin.hub.app.service.SseDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Spring MVC cancels the future a controller returned when the async request times out or the client goes away;
+ * the cancellation has to reach the in-flight deployer exchange through every stage stacked on top of it
+ */
+class DeploymentControllerCancellationTest {
+
+    private final CloseableHttpAsyncClient httpClient = mock(CloseableHttpAsyncClient.class);
+    @SuppressWarnings("unchecked")
+    private final Future<Object> exchange = mock(Future.class);
+    private final DeployerCircuitBreaker circuitBreaker;
+    private final DeploymentController controller;
+
+    @SuppressWarnings("unchecked")
+    DeploymentControllerCancellationTest() {
+        when(httpClient.execute(any(AsyncRequestProducer.class), any(AsyncResponseConsumer.class), any(FutureCallback.class)))
+                .thenReturn(exchange);
+
+        DeployerProperties deployerProperties = new DeployerProperties();
+        deployerProperties.setBaseUrl("http://deployer.test");
+        circuitBreaker = new DeployerCircuitBreaker(deployerProperties);
+        DeployerAsyncClient deployerAsyncClient = new DeployerAsyncClient(httpClient, deployerProperties, circuitBreaker,
+                new DeployerMetrics(new SimpleMeterRegistry()), JsonMapper.builder().build(), new TaskExecutorAdapter(Runnable::run));
+        DeploymentService deploymentService = new DeploymentService(mock(RestTemplate.class), deployerAsyncClient,
+                mock(DeployerReadCache.class), mock(AppLivenessProbe.class), mock(ApplicationRegistry.class),
+                mock(LogBufferService.class), deployerProperties);
+        controller = new DeploymentController(deploymentService, mock(LogTailService.class), mock(LogSearchService.class),
+                mock(HealthHistoryStore.class), mock(ApplicationEventPublisher.class), mock(SseDeltaStream.class),
+                mock(SseDeltaStream.class), mock(SseDispatcher.class));
+    }
+
+    @Test
+    void cancellingActionResponseAbortsDeployerExchange() {
+        CompletableFuture<ResponseEntity<DeploymentResponse>> response = controller.build("app");
+
+        assertTrue(response.cancel(true));
+
+        verify(exchange).cancel(true);
+        assertEquals(DeployerCircuitBreaker.State.CLOSED, circuitBreaker.snapshot().state());
+    }
+
+    @Test
+    void cancellingResponseOfActionThatInvalidatesRegistryAbortsDeployerExchange() {
+        CompletableFuture<ResponseEntity<DeploymentResponse>> response = controller.fullDeploy("app");
+
+        assertTrue(response.cancel(true));
+
+        verify(exchange).cancel(true);
+    }
+}
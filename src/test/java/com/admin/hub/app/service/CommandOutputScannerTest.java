@@ -0,0 +1,98 @@
+package com.admin.hub.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandOutputScannerTest {
+
+    private static final double DELTA = 1e-9;
+    private static final double KIB = 1024;
+    private static final double MIB = KIB * 1024;
+    private static final double GIB = MIB * 1024;
+    private static final double TIB = GIB * 1024;
+
+    @Test
+    void walksLinesAndTokens() {
+        CommandOutputScanner scanner = new CommandOutputScanner("Mem:   7.8Gi\t1.8Gi\r\n\nSwap: 0B");
+
+        assertTrue(scanner.nextLine());
+        assertEquals(3, scanner.tokenCount());
+        assertTrue(scanner.nextToken());
+        assertEquals("Mem:", scanner.token());
+        assertTrue(scanner.nextToken());
+        assertEquals("7.8Gi", scanner.token());
+        assertTrue(scanner.nextToken());
+        assertEquals("1.8Gi", scanner.token());
+        assertFalse(scanner.nextToken());
+
+        assertTrue(scanner.nextLine());
+        assertTrue(scanner.lineIsEmpty());
+
+        assertTrue(scanner.nextLine());
+        assertTrue(scanner.lineStartsWith("Swap:"));
+        scanner.rewindLine();
+        assertTrue(scanner.skipTokens(2));
+        assertEquals("0B", scanner.token());
+        assertFalse(scanner.nextLine());
+    }
+
+    @Test
+    void sizesWithUnitsFromFreeAndDf() {
+        assertEquals(7.8 * GIB, size("7.8Gi"), DELTA);
+        assertEquals(157 * GIB, size("157G"), DELTA);
+        assertEquals(174 * MIB, size("174Mi"), DELTA);
+        assertEquals(1.6 * MIB, size("1.6M"), DELTA);
+        assertEquals(512 * KIB, size("512K"), DELTA);
+        assertEquals(1.5 * TIB, size("1.5TB"), DELTA);
+        assertEquals(0.0, size("0B"), DELTA);
+        assertEquals(0.0, size("0"), DELTA);
+        assertTrue(Double.isNaN(size("-")));
+    }
+
+    @Test
+    void numbersAtTheStartOfTheToken() {
+        assertEquals(0.08, number("0.08,"), DELTA);
+        assertEquals(95.0, number("95"), DELTA);
+        assertEquals(8.0, number("8%"), DELTA);
+        assertEquals(16.29, number("16.29"), DELTA);
+        assertTrue(Double.isNaN(number("id")));
+    }
+
+    @Test
+    void restJoinsTheRemainingTokensWithSingleSpaces() {
+        CommandOutputScanner scanner = new CommandOutputScanner("nginx.service loaded active running A  high\tperformance web server");
+        scanner.nextLine();
+        scanner.skipTokens(4);
+
+        assertEquals("A high performance web server", scanner.rest());
+        assertEquals("", scanner.rest());
+    }
+
+    @Test
+    void sliceTrimsTheLinePart() {
+        CommandOutputScanner scanner = new CommandOutputScanner(" 10:14:33 up 12 days,  3:04,  2 users");
+        scanner.nextLine();
+        scanner.skipTokens(2);
+        int start = scanner.tokenEnd();
+        scanner.skipTokens(4);
+
+        assertEquals("12 days,  3:04,", scanner.slice(start, scanner.tokenStart()));
+    }
+
+    private static double size(String token) {
+        CommandOutputScanner scanner = new CommandOutputScanner(token);
+        scanner.nextLine();
+        scanner.nextToken();
+        return scanner.tokenAsSize();
+    }
+
+    private static double number(String token) {
+        CommandOutputScanner scanner = new CommandOutputScanner(token);
+        scanner.nextLine();
+        scanner.nextToken();
+        return scanner.tokenAsNumber();
+    }
+}
@@ -0,0 +1,242 @@
+package com.admin.hub.app.service;
+
+import com.admin.hub.app.dto.RunningService;
+import com.admin.hub.app.dto.ServerHealthSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parsers of the command output returned by the deployer's server endpoints, fed with captures from real hosts
+ */
+class ServerServiceParserTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void cpuUsageFromVmstatWithGuestColumnUsesLastSample() {
+        String vmstat = """
+                procs -----------memory---------- ---swap-- -----io---- -system-- -------cpu-------
+                 r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st gu
+                 1  0      0 3720824 124728 2857108    0    0    19    34  434    1  1  0 99  0  0  0
+                 0  0      0 3719560 124728 2857148    0    0     0     0  512  843  3  1 95  1  0  0
+                """;
+
+        assertEquals(5.0, ServerService.parseCpuUsage(vmstat), DELTA);
+    }
+
+    @Test
+    void cpuUsageFromVmstatWithoutGuestColumn() {
+        String vmstat = """
+                procs -----------memory---------- ---swap-- -----io---- -system-- ------cpu-----
+                 r  b   swpd   free   buff  cache   si   so    bi    bo   in   cs us sy id wa st
+                 2  0 262144 812344  98212 5123456    0    1    12    45  301  612  7  2 88  3  0
+                """;
+
+        assertEquals(12.0, ServerService.parseCpuUsage(vmstat), DELTA);
+    }
+
+    @Test
+    void cpuUsageIsZeroWithoutIdleColumn() {
+        assertEquals(0.0, ServerService.parseCpuUsage(null), DELTA);
+        assertEquals(0.0, ServerService.parseCpuUsage("vmstat: command not found\n"), DELTA);
+    }
+
+    @Test
+    void memoryUsageFromFreeInGibibytes() {
+        String free = """
+                               total        used        free      shared  buff/cache   available
+                Mem:           7.8Gi       1.8Gi       3.5Gi       174Mi       2.8Gi       6.0Gi
+                Swap:          2.0Gi          0B       2.0Gi
+                """;
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        assertEquals(1.8 / 7.8 * 100, ServerService.parseMemoryUsage(free, summary), DELTA);
+        assertEquals("7.8Gi", summary.getTotalMemory());
+        assertEquals("1.8Gi", summary.getUsedMemory());
+    }
+
+    @Test
+    void memoryUsageFromFreeWithMebibytesUsed() {
+        String free = """
+                               total        used        free      shared  buff/cache   available
+                Mem:           1.9Gi       512Mi       1.0Gi        12Mi       420Mi       1.3Gi
+                Swap:             0B          0B          0B
+                """;
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        assertEquals(512.0 / (1.9 * 1024) * 100, ServerService.parseMemoryUsage(free, summary), DELTA);
+        assertEquals("1.9Gi", summary.getTotalMemory());
+        assertEquals("512Mi", summary.getUsedMemory());
+    }
+
+    @Test
+    void memoryUsageIsZeroForUnreadableSizes() {
+        String free = """
+                               total        used        free      shared  buff/cache   available
+                Mem:           7.8Gi           -       3.5Gi       174Mi       2.8Gi       6.0Gi
+                """;
+
+        assertEquals(0.0, ServerService.parseMemoryUsage(free, new ServerHealthSummary()), DELTA);
+    }
+
+    @Test
+    void diskUsageOfRootFromUsePercent() {
+        String df = """
+                Filesystem      Size  Used Avail Use% Mounted on
+                udev            3.9G     0  3.9G   0% /dev
+                tmpfs           797M  1.6M  796M   1% /run
+                /dev/sda1       157G   12G  138G   8% /
+                tmpfs           3.9G     0  3.9G   0% /dev/shm
+                /dev/sda15      105M  6.1M   99M   6% /boot/efi
+                """;
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        assertEquals(8.0, ServerService.parseDiskUsage(df, summary), DELTA);
+        assertEquals("157G", summary.getTotalDisk());
+        assertEquals("12G", summary.getUsedDisk());
+    }
+
+    @Test
+    void diskUsageWithoutUsePercentIsUsedOverSize() {
+        String df = """
+                Filesystem      Size  Used Avail Mounted on
+                /dev/sda15      105M  6.1M   99M /boot/efi
+                /dev/vda1       1.0T  512G  500G /
+                """;
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        assertEquals(50.0, ServerService.parseDiskUsage(df, summary), DELTA);
+        assertEquals("1.0T", summary.getTotalDisk());
+        assertEquals("512G", summary.getUsedDisk());
+    }
+
+    @Test
+    void diskUsageWithoutUsePercentInMebibytes() {
+        String df = """
+                Filesystem      Size  Used Avail Mounted on
+                /dev/mmcblk0p2  900M  450M  400M /
+                """;
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        assertEquals(50.0, ServerService.parseDiskUsage(df, summary), DELTA);
+        assertEquals("900M", summary.getTotalDisk());
+        assertEquals("450M", summary.getUsedDisk());
+    }
+
+    @Test
+    void diskUsageIsZeroForUnreadableSizes() {
+        String df = """
+                Filesystem      Size  Used Avail Mounted on
+                /dev/sda1       157G     -  138G /
+                """;
+        String dfUsePercent = """
+                Filesystem      Size  Used Avail Use% Mounted on
+                /dev/sda1       157G   12G  138G    -% /
+                """;
+
+        assertEquals(0.0, ServerService.parseDiskUsage(df, new ServerHealthSummary()), DELTA);
+        assertEquals(0.0, ServerService.parseDiskUsage(dfUsePercent, new ServerHealthSummary()), DELTA);
+    }
+
+    @Test
+    void uptimeAndLoadFromLinuxUptime() {
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        ServerService.parseUptime(" 10:14:33 up 12 days,  3:04,  2 users,  load average: 0.08, 0.03, 0.01\n", summary);
+
+        assertEquals("12 days,  3:04", summary.getUptime());
+        assertEquals(0.08, summary.getLoadAverage(), DELTA);
+    }
+
+    @Test
+    void uptimeInMinutesWithSingleUser() {
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        ServerService.parseUptime(" 08:01:12 up 45 min,  1 user,  load average: 1.25, 0.90, 0.61\n", summary);
+
+        assertEquals("45 min", summary.getUptime());
+        assertEquals(1.25, summary.getLoadAverage(), DELTA);
+    }
+
+    @Test
+    void uptimeAndLoadFromBsdUptime() {
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        ServerService.parseUptime("21:00  up 5 days, 6:13, 6 users, load averages: 9.80 12.14 16.29\n", summary);
+
+        assertEquals("5 days, 6:13", summary.getUptime());
+        assertEquals(9.8, summary.getLoadAverage(), DELTA);
+    }
+
+    @Test
+    void uptimeUnknownWithoutOutput() {
+        ServerHealthSummary summary = new ServerHealthSummary();
+
+        ServerService.parseUptime(null, summary);
+
+        assertEquals("Unknown", summary.getUptime());
+    }
+
+    @Test
+    void servicesFromSystemctlWithFailedUnitMarker() {
+        String systemctl = """
+                  UNIT                        LOAD   ACTIVE SUB     DESCRIPTION
+                  cron.service                loaded active running Regular background program processing daemon
+                  dbus.service                loaded active running D-Bus System Message Bus
+                ● nginx.service               loaded failed failed  A high performance web server and a reverse proxy server
+                  ssh.service                 loaded active running OpenBSD Secure Shell server
+
+                LOAD   = Reflects whether the unit definition was properly loaded.
+                ACTIVE = The high-level unit activation state, i.e. generalization of SUB.
+                SUB    = The low-level unit activation state, values depend on unit type.
+
+                4 loaded units listed.
+                """;
+
+        List<RunningService> services = ServerService.parseServiceOutput(systemctl);
+
+        assertEquals(4, services.size());
+        assertService(services.get(0), "cron.service", "active running", "Regular background program processing daemon");
+        assertService(services.get(1), "dbus.service", "active running", "D-Bus System Message Bus");
+        assertService(services.get(2), "nginx.service", "failed failed", "A high performance web server and a reverse proxy server");
+        assertService(services.get(3), "ssh.service", "active running", "OpenBSD Secure Shell server");
+    }
+
+    @Test
+    void servicesFromSystemctlWithLegendBlock() {
+        String systemctl = """
+                  UNIT                        LOAD   ACTIVE SUB     DESCRIPTION
+                  admin-hub.service           loaded active running Admin   Hub service
+                ● broken.service              loaded failed failed  Broken thing
+                  cron.service                loaded active running Regular background program processing daemon
+
+                Legend: LOAD   → Reflects whether the unit definition was properly loaded.
+                        ACTIVE → The high-level unit activation state, i.e. generalization of SUB.
+
+                3 loaded units listed.
+                """;
+
+        List<RunningService> services = ServerService.parseServiceOutput(systemctl);
+
+        assertEquals(3, services.size());
+        assertService(services.get(0), "admin-hub.service", "active running", "Admin Hub service");
+        assertService(services.get(1), "broken.service", "failed failed", "Broken thing");
+        assertService(services.get(2), "cron.service", "active running", "Regular background program processing daemon");
+    }
+
+    @Test
+    void noServicesWithoutOutput() {
+        assertTrue(ServerService.parseServiceOutput(null).isEmpty());
+        assertTrue(ServerService.parseServiceOutput("").isEmpty());
+    }
+
+    private static void assertService(RunningService service, String name, String status, String description) {
+        assertEquals(name, service.getName());
+        assertEquals(status, service.getStatus());
+        assertEquals(description, service.getDescription());
+    }
+}
@@ -0,0 +1,38 @@
+// Writes .gz and .br variants next to the built assets, served by the Spring resource chain
+// (StaticResourceIndex in WebConfig) to clients that accept them. Runs after `npm run build`.
+import { readdirSync, readFileSync, statSync, writeFileSync } from 'node:fs';
+import { join } from 'node:path';
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib';
+
+const OUTPUT_DIR = new URL('../dist/adminhub-frontend/browser/', import.meta.url).pathname;
+const EXTENSIONS = /\.(js|mjs|css|html|json|svg|txt|map)$/;
+// Smaller files are not worth an extra lookup
+const MIN_SIZE = 1024;
+
+function* files(dir) {
+  for (const name of readdirSync(dir)) {
+    const path = join(dir, name);
+    if (statSync(path).isDirectory()) {
+      yield* files(path);
+    } else if (EXTENSIONS.test(name)) {
+      yield path;
+    }
+  }
+}
+
+let count = 0;
+for (const path of files(OUTPUT_DIR)) {
+  const content = readFileSync(path);
+  if (content.length < MIN_SIZE) {
+    continue;
+  }
+  writeFileSync(path + '.gz', gzipSync(content, { level: 9 }));
+  writeFileSync(path + '.br', brotliCompressSync(content, {
+    params: {
+      [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+      [constants.BROTLI_PARAM_SIZE_HINT]: content.length
+    }
+  }));
+  count++;
+}
+console.log(`Precompressed ${count} files in ${OUTPUT_DIR}`);
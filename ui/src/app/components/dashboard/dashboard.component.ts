@@ -1,7 +1,7 @@
 import { Component, OnInit, OnDestroy } from '@angular/core';
 import { Router } from '@angular/router';
-import { DeploymentService, ApplicationConfig, DeploymentResponse } from '../../services/deployment.service';
-import { ServerService, RunningService, ServerHealthSummary } from '../../services/server.service';
+import { DeploymentService, ApplicationConfig, DeploymentResponse, LogTailFrame, LogSearchResponse } from '../../services/deployment.service';
+import { ServerService, RunningService, ServerHealthSummary, HealthHistory } from '../../services/server.service';
 import { ToastrService } from 'ngx-toastr';
 import { Subscription } from 'rxjs';
 
@@ -27,16 +27,28 @@ export class DashboardComponent implements OnInit, OnDestroy {
   private healthCheckInterval: any;
   private appStatusCheckInterval: any;
   private serverHealthInterval: any;
+  private serverHistoryInterval: any;
   private previousServiceStatus: string = 'Checking...';
   appLiveStatus: { [key: string]: boolean | null } = {};
+  appProbeStatus: { [key: string]: string } = {};
   private healthAndAppsSubscription: Subscription | null = null;
   private serverHealthSubscription: Subscription | null = null;
+  private logsSubscription: Subscription | null = null;
+  private logLines: string[] = [];
+  private static readonly MAX_LOG_LINES = 5000;
+  private logsAppName: string | null = null;
+  logSearchQuery = '';
+  logSearchLevel = '';
+  logSearchRegex = false;
+  logSearchResult: LogSearchResponse | null = null;
 
   // Server-related properties
   runningServices: RunningService[] = [];
   serverHealth: ServerHealthSummary | null = null;
   serverLoading = true;
   showRunningServices = false;
+  // SVG polyline points of the last hour per metric (cpu, memory, disk), on a 100 x 100 view box
+  serverHistory: { [metric: string]: string } = {};
 
   actions = [
     { id: 'checkout', label: 'Checkout', icon: '🔄', color: 'purple' },
@@ -59,6 +71,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
     this.loadApplications();
     this.loadServerData();
     this.checkDeployerHealth();
+    this.serverHistoryInterval = setInterval(() => this.loadServerHistory(), 60000);
 
     // Subscribe to health and app status updates via SSE
     this.healthAndAppsSubscription = this.deploymentService.subscribeToHealthAndAppStatus().subscribe(
@@ -76,7 +89,15 @@ export class DashboardComponent implements OnInit, OnDestroy {
           this.serviceStatus = newStatus;
         } else if (event.type === 'appStatus') {
           const appStatuses = event.data.appStatuses;
+          const probeStatuses = event.data.appProbeStatuses || {};
           this.appLiveStatus = { ...appStatuses };
+          // A probe that missed its deadline is neither live nor offline
+          for (const name of Object.keys(probeStatuses)) {
+            if (probeStatuses[name] === 'timeout') {
+              this.appLiveStatus[name] = null;
+            }
+          }
+          this.appProbeStatus = { ...probeStatuses };
         }
       },
       // eslint-disable-next-line @typescript-eslint/no-unused-vars
@@ -131,6 +152,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
     if (this.serverHealthSubscription) {
       this.serverHealthSubscription.unsubscribe();
     }
+    this.stopFollowingLogs();
 
     // Clean up the health check interval if it's set (fallback polling)
     if (this.healthCheckInterval) {
@@ -144,6 +166,9 @@ export class DashboardComponent implements OnInit, OnDestroy {
     if (this.serverHealthInterval) {
       clearInterval(this.serverHealthInterval);
     }
+    if (this.serverHistoryInterval) {
+      clearInterval(this.serverHistoryInterval);
+    }
   }
 
   checkDeployerHealth(): void {
@@ -221,6 +246,11 @@ export class DashboardComponent implements OnInit, OnDestroy {
     const appName = this.selectedApp.name;
     const key = `${appName}-${action}`;
 
+    if (action === 'logs') {
+      this.followLogs(appName);
+      return;
+    }
+
     this.activeActionMap[key] = true;
 
     const actionObservable = this.getActionObservable(action, appName);
@@ -256,6 +286,108 @@ export class DashboardComponent implements OnInit, OnDestroy {
     );
   }
 
+  /**
+   * Open the logs modal and keep appending new lines until it is closed
+   */
+  private followLogs(appName: string): void {
+    this.stopFollowingLogs();
+    this.logsAppName = appName;
+    this.logSearchResult = null;
+    this.logLines = [];
+    this.logsContent = 'Loading logs...';
+    this.showLogsModal = true;
+
+    this.logsSubscription = this.deploymentService.followLogs(appName).subscribe({
+      next: (frame: LogTailFrame) => {
+        const lines = frame.lines.map(line => `${line.stream === 'stderr' ? 'stderr ' : ''}${line.text}`);
+        if (frame.reset) {
+          this.logLines = lines;
+        } else {
+          if (frame.gap) {
+            this.logLines.push('... some lines were skipped ...');
+          }
+          this.logLines.push(...lines);
+        }
+        if (this.logLines.length > DashboardComponent.MAX_LOG_LINES) {
+          this.logLines.splice(0, this.logLines.length - DashboardComponent.MAX_LOG_LINES);
+        }
+        this.logsContent = this.logLines.length > 0 ? this.logLines.join('\n') : 'No logs available';
+      },
+      error: () => {
+        // Streaming not available, fall back to a one-off fetch
+        this.deploymentService.getRawLogs(appName, 1000).subscribe(response => {
+          this.logsContent = response.data?.logs?.stdout || 'No logs available';
+        });
+      }
+    });
+  }
+
+  /**
+   * Search the logs on the server; an empty search returns to the live tail
+   */
+  searchLogs(): void {
+    if (!this.logsAppName) return;
+    if (!this.logSearchQuery && !this.logSearchLevel) {
+      this.clearLogSearch();
+      return;
+    }
+    this.stopFollowingLogs();
+    this.logsContent = 'Searching...';
+    this.deploymentService.searchLogs(this.logsAppName, this.logSearchQuery, {
+      regex: this.logSearchRegex,
+      levels: this.logSearchLevel ? [this.logSearchLevel] : []
+    }).subscribe({
+      next: result => {
+        this.logSearchResult = result;
+        this.logsContent = this.formatLogMatches(result);
+      },
+      error: error => {
+        this.logSearchResult = null;
+        this.logsContent = error.error?.message || 'Search failed';
+      }
+    });
+  }
+
+  loadMoreLogMatches(): void {
+    const previous = this.logSearchResult;
+    if (!this.logsAppName || !previous || previous.nextCursor === null) return;
+    this.deploymentService.searchLogs(this.logsAppName, this.logSearchQuery, {
+      regex: this.logSearchRegex,
+      levels: this.logSearchLevel ? [this.logSearchLevel] : [],
+      snapshot: previous.snapshot,
+      cursor: previous.nextCursor
+    }).subscribe(result => {
+      // A different snapshot means the old window expired and the search started over
+      const sameWindow = result.snapshot === previous.snapshot;
+      this.logSearchResult = result;
+      this.logsContent = sameWindow
+        ? this.logsContent + '\n' + this.formatLogMatches(result)
+        : this.formatLogMatches(result);
+    });
+  }
+
+  clearLogSearch(): void {
+    this.logSearchQuery = '';
+    this.logSearchLevel = '';
+    if (this.logsAppName) {
+      this.followLogs(this.logsAppName);
+    }
+  }
+
+  private formatLogMatches(result: LogSearchResponse): string {
+    if (!result.matches || result.matches.length === 0) {
+      return 'No matching lines';
+    }
+    return result.matches.map(match => `${match.stream === 'stderr' ? 'stderr ' : ''}${match.line + 1}: ${match.text}`).join('\n');
+  }
+
+  private stopFollowingLogs(): void {
+    if (this.logsSubscription) {
+      this.logsSubscription.unsubscribe();
+      this.logsSubscription = null;
+    }
+  }
+
   private extractLogsFromResponse(response: DeploymentResponse): string {
     if (!response.data) {
       return 'No logs available';
@@ -315,6 +447,9 @@ export class DashboardComponent implements OnInit, OnDestroy {
   }
 
   closeLogsModal(): void {
+    this.stopFollowingLogs();
+    this.logsAppName = null;
+    this.logSearchResult = null;
     this.showLogsModal = false;
   }
 
@@ -350,6 +485,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
 
   loadServerData(): void {
     this.serverLoading = true;
+    this.loadServerHistory();
     this.serverService.getServerHealthSummary().subscribe(
       (health: ServerHealthSummary) => {
         this.serverHealth = health;
@@ -370,6 +506,32 @@ export class DashboardComponent implements OnInit, OnDestroy {
     );
   }
 
+  loadServerHistory(): void {
+    const to = Date.now();
+    const from = to - 60 * 60 * 1000;
+    this.serverService.getServerHealthHistory(from, to, 'auto', 120).subscribe(
+      (history: HealthHistory) => {
+        const points: { [metric: string]: string } = {};
+        for (const metric of ['cpu', 'memory', 'disk']) {
+          const series = history.series[metric];
+          if (series && history.timestamps.length > 1) {
+            points[metric] = history.timestamps
+              .map((timestamp, i) => {
+                const x = ((timestamp - from) / (to - from)) * 100;
+                const y = 100 - Math.max(0, Math.min(100, series.avg[i]));
+                return `${x.toFixed(2)},${y.toFixed(2)}`;
+              })
+              .join(' ');
+          }
+        }
+        this.serverHistory = points;
+      },
+      (error: any) => {
+        this.serverHistory = {};
+      }
+    );
+  }
+
   refreshDashboard(): void {
     this.loadApplications();
     this.loadServerData();
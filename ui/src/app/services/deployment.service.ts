@@ -3,6 +3,7 @@ import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../environments/environment.development';
 import { AuthService } from './auth.service';
+import { SseDeltaState } from './sse-delta';
 
 export interface ApplicationConfig {
   name: string;
@@ -27,6 +28,44 @@ export interface DeploymentResponse {
   details?: any;
 }
 
+export interface RawLogsResponse {
+  success: boolean;
+  data?: {
+    service?: string;
+    logs?: { code: number; stdout: string; stderr: string };
+  };
+}
+
+export interface LogSearchMatch {
+  line: number;
+  stream: 'stdout' | 'stderr';
+  level: string;
+  text: string;
+}
+
+export interface LogSearchResponse {
+  applicationName: string;
+  success: boolean;
+  message: string;
+  snapshot: string;
+  windowLines: number;
+  totalMatches: number;
+  matches: LogSearchMatch[];
+  nextCursor: number | null;
+}
+
+export interface LogTailLine {
+  stream: 'stdout' | 'stderr';
+  text: string;
+}
+
+export interface LogTailFrame {
+  cursor: number;
+  reset: boolean;
+  gap: boolean;
+  lines: LogTailLine[];
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -131,6 +170,131 @@ export class DeploymentService {
     );
   }
 
+  /**
+   * Search application logs on the server. Pass snapshot and cursor from the previous page to continue.
+   */
+  searchLogs(applicationName: string, query: string, options: {
+    regex?: boolean;
+    levels?: string[];
+    snapshot?: string;
+    cursor?: number;
+    limit?: number;
+  } = {}): Observable<LogSearchResponse> {
+    let params = new HttpParams().set('q', query);
+    if (options.regex) {
+      params = params.set('regex', 'true');
+    }
+    for (const level of options.levels || []) {
+      params = params.append('level', level);
+    }
+    if (options.snapshot) {
+      params = params.set('snapshot', options.snapshot);
+    }
+    if (options.cursor !== undefined) {
+      params = params.set('cursor', options.cursor.toString());
+    }
+    if (options.limit !== undefined) {
+      params = params.set('limit', options.limit.toString());
+    }
+    return this.http.get<LogSearchResponse>(
+      `${this.deploymentBaseUrl}/logs/${applicationName}/search`,
+      { params }
+    );
+  }
+
+  /**
+   * Get application logs as the deployer's JSON, passed through by the server without re-serialization
+   */
+  getRawLogs(applicationName: string, lines: number = 1000): Observable<RawLogsResponse> {
+    let params = new HttpParams();
+    params = params.set('lines', lines.toString());
+    return this.http.get<RawLogsResponse>(
+      `${this.deploymentBaseUrl}/logs/${applicationName}/raw`,
+      { params }
+    );
+  }
+
+  /**
+   * Follow application logs via SSE: the recent tail first, then only new lines.
+   * When the server ends the stream it reconnects and resumes from the last received event id.
+   */
+  followLogs(applicationName: string): Observable<LogTailFrame> {
+    return new Observable(observer => {
+      const token = this.authService.token;
+      const url = `${this.deploymentBaseUrl}/logs/${applicationName}/stream`;
+      const abortController = new AbortController();
+      let lastEventId: string | null = null;
+      let reconnectTimer: any = null;
+
+      if (!token) {
+        observer.error(new Error('No authentication token available'));
+        return () => {};
+      }
+
+      const handleEvent = (eventString: string) => {
+        let data = '';
+        for (const line of eventString.split('\n')) {
+          if (line.startsWith('id:')) {
+            lastEventId = line.substring(3).trim();
+          } else if (line.startsWith('data:')) {
+            data = line.substring(5).trim();
+          }
+        }
+        if (data) {
+          try {
+            observer.next(JSON.parse(data) as LogTailFrame);
+          } catch (error) {
+            console.error('Error parsing log stream event:', error);
+          }
+        }
+      };
+
+      const connect = () => {
+        const headers: { [key: string]: string } = { 'Authorization': `Bearer ${token}` };
+        if (lastEventId) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        fetch(url, { method: 'GET', headers, signal: abortController.signal })
+          .then(async response => {
+            if (!response.ok || !response.body) {
+              throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (true) {
+              const { done, value } = await reader.read();
+              if (done) {
+                break;
+              }
+              buffer += decoder.decode(value, { stream: true });
+              const parts = buffer.split('\n\n');
+              for (let i = 0; i < parts.length - 1; i++) {
+                if (parts[i].trim()) {
+                  handleEvent(parts[i]);
+                }
+              }
+              buffer = parts[parts.length - 1];
+            }
+            // Server side timeout, pick up where we left off
+            reconnectTimer = setTimeout(connect, 1000);
+          })
+          .catch((error: any) => {
+            if (error.name !== 'AbortError') {
+              observer.error(error);
+            }
+          });
+      };
+
+      connect();
+
+      return () => {
+        clearTimeout(reconnectTimer);
+        abortController.abort();
+      };
+    });
+  }
+
   /**
    * Execute full deployment workflow
    */
@@ -173,70 +337,79 @@ export class DeploymentService {
       }
 
       // Use AbortController for cleaner cancellation
-      abortController = new AbortController();
-
-      fetch(url, {
-        method: 'GET',
-        headers: {
-          'Authorization': `Bearer ${token}`
-        },
-        signal: abortController.signal
-      })
-        .then(response => {
-          if (!response.ok) {
-            throw new Error(`HTTP error! status: ${response.status}`);
-          }
-          return response.body;
+      const connect = () => {
+        const controller = new AbortController();
+        abortController = controller;
+
+        fetch(url, {
+          method: 'GET',
+          headers: {
+            'Authorization': `Bearer ${token}`
+          },
+          signal: controller.signal
         })
-        .then(body => {
-          if (!body) {
-            throw new Error('No response body');
-          }
-
-          const reader = body.getReader();
-          const decoder = new TextDecoder();
-          let buffer = '';
-
-          const processStream = async () => {
-            try {
-              while (true) {
-                const { done, value } = await reader.read();
+          .then(response => {
+            if (!response.ok) {
+              throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            return response.body;
+          })
+          .then(body => {
+            if (!body) {
+              throw new Error('No response body');
+            }
 
-                if (done) {
-                  if (buffer.trim()) {
-                    this.parseSSEEvent(buffer, observer);
+            const reader = body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            // Delta state per event type, reset with every new connection
+            const deltas: { [type: string]: SseDeltaState } = {};
+
+            const processStream = async () => {
+              try {
+                while (true) {
+                  const { done, value } = await reader.read();
+
+                  if (done) {
+                    if (buffer.trim()) {
+                      this.parseSSEEvent(buffer, observer, deltas);
+                    }
+                    observer.complete();
+                    break;
                   }
-                  observer.complete();
-                  break;
-                }
-
-                buffer += decoder.decode(value, { stream: true });
-                const parts = buffer.split('\n\n');
 
-                // Process complete events
-                for (let i = 0; i < parts.length - 1; i++) {
-                  if (parts[i].trim()) {
-                    this.parseSSEEvent(parts[i], observer);
+                  buffer += decoder.decode(value, { stream: true });
+                  const parts = buffer.split('\n\n');
+
+                  // Process complete events
+                  for (let i = 0; i < parts.length - 1; i++) {
+                    if (parts[i].trim() && !this.parseSSEEvent(parts[i], observer, deltas)) {
+                      // A delta was lost: reconnect, the server starts every connection with its keyframes
+                      controller.abort();
+                      connect();
+                      return;
+                    }
                   }
-                }
 
-                // Keep incomplete event in buffer
-                buffer = parts[parts.length - 1];
-              }
-            } catch (error: any) {
-              if (error.name !== 'AbortError') {
-                observer.error(error);
+                  // Keep incomplete event in buffer
+                  buffer = parts[parts.length - 1];
+                }
+              } catch (error: any) {
+                if (error.name !== 'AbortError') {
+                  observer.error(error);
+                }
               }
-            }
-          };
+            };
 
-          processStream();
-        })
-        .catch((error: any) => {
-          if (error.name !== 'AbortError') {
-            observer.error(error);
-          }
-        });
+            processStream();
+          })
+          .catch((error: any) => {
+            if (error.name !== 'AbortError') {
+              observer.error(error);
+            }
+          });
+      };
+      connect();
 
       return () => {
         if (abortController) {
@@ -247,9 +420,9 @@ export class DeploymentService {
   }
 
   /**
-   * Parse Server-Sent Events format
+   * Parse Server-Sent Events format; returns false if a delta was lost and the stream has to be reopened
    */
-  private parseSSEEvent(eventString: string, observer: any): void {
+  private parseSSEEvent(eventString: string, observer: any, deltas: { [type: string]: SseDeltaState }): boolean {
     const lines = eventString.split('\n');
     const event: { [key: string]: string } = {};
 
@@ -265,13 +438,17 @@ export class DeploymentService {
 
     if (event['data'] && event['event']) {
       try {
-        observer.next({
-          type: event['event'],
-          data: JSON.parse(event['data'])
-        });
+        const type = event['event'];
+        deltas[type] = deltas[type] || new SseDeltaState();
+        const data = deltas[type].apply(JSON.parse(event['data']));
+        if (data !== null) {
+          observer.next({ type, data });
+        }
+        return !deltas[type].outOfSync;
       } catch (error) {
         console.error('Error parsing SSE event data:', error);
       }
     }
+    return true;
   }
 }
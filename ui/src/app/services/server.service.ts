@@ -3,6 +3,7 @@ import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import {environment} from "../../environments/environment.development";
 import { AuthService } from './auth.service';
+import { SseDeltaState } from './sse-delta';
 
 export interface RunningService {
   name: string;
@@ -22,6 +23,19 @@ export interface ServerHealthSummary {
   totalDisk?: string;
 }
 
+export interface HealthHistorySeries {
+  min: number[];
+  avg: number[];
+  max: number[];
+}
+
+export interface HealthHistory {
+  resolution: 'raw' | 'minute' | 'hour' | 'day';
+  bucketMillis: number;
+  timestamps: number[];
+  series: { [metric: string]: HealthHistorySeries };
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -41,8 +55,20 @@ export class ServerService {
   }
 
   /**
-   * Subscribe to server health and services updates via SSE
+   * Server health history between from and to (epoch millis), by default the last hour at the finest
+   * resolution that fits in maxPoints points
    */
+  getServerHealthHistory(from?: number, to?: number, resolution = 'auto', maxPoints = 1000): Observable<HealthHistory> {
+    const params: { [param: string]: string } = { resolution, maxPoints: String(maxPoints) };
+    if (from !== undefined) {
+      params['from'] = String(from);
+    }
+    if (to !== undefined) {
+      params['to'] = String(to);
+    }
+    return this.http.get<HealthHistory>(`${this.deploymentBaseUrl}/health/history`, { params });
+  }
+
   /**
    * Subscribe to server health and services updates via SSE
    */
@@ -57,68 +83,77 @@ export class ServerService {
         return () => {};
       }
 
-      abortController = new AbortController();
-
-      fetch(url, {
-        method: 'GET',
-        headers: {
-          'Authorization': `Bearer ${token}`
-        },
-        signal: abortController.signal
-      })
-        .then(response => {
-          if (!response.ok) {
-            throw new Error(`HTTP error! status: ${response.status}`);
-          }
-          return response.body;
+      const connect = () => {
+        const controller = new AbortController();
+        abortController = controller;
+
+        fetch(url, {
+          method: 'GET',
+          headers: {
+            'Authorization': `Bearer ${token}`
+          },
+          signal: controller.signal
         })
-        .then(body => {
-          if (!body) {
-            throw new Error('No response body');
-          }
-
-          const reader = body.getReader();
-          const decoder = new TextDecoder();
-          let buffer = '';
-
-          const processStream = async () => {
-            try {
-              while (true) {
-                const { done, value } = await reader.read();
-
-                if (done) {
-                  if (buffer.trim()) {
-                    this.parseSSEEvent(buffer, observer);
+          .then(response => {
+            if (!response.ok) {
+              throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            return response.body;
+          })
+          .then(body => {
+            if (!body) {
+              throw new Error('No response body');
+            }
+
+            const reader = body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            // Delta state per event type, reset with every new connection
+            const deltas: { [type: string]: SseDeltaState } = {};
+
+            const processStream = async () => {
+              try {
+                while (true) {
+                  const { done, value } = await reader.read();
+
+                  if (done) {
+                    if (buffer.trim()) {
+                      this.parseSSEEvent(buffer, observer, deltas);
+                    }
+                    observer.complete();
+                    break;
                   }
-                  observer.complete();
-                  break;
-                }
 
-                buffer += decoder.decode(value, { stream: true });
-                const parts = buffer.split('\n\n');
+                  buffer += decoder.decode(value, { stream: true });
+                  const parts = buffer.split('\n\n');
 
-                for (let i = 0; i < parts.length - 1; i++) {
-                  if (parts[i].trim()) {
-                    this.parseSSEEvent(parts[i], observer);
+                  for (let i = 0; i < parts.length - 1; i++) {
+                    if (parts[i].trim() && !this.parseSSEEvent(parts[i], observer, deltas)) {
+                      // A delta was lost: reconnect, the server starts every connection with its keyframes
+                      controller.abort();
+                      connect();
+                      return;
+                    }
                   }
-                }
 
-                buffer = parts[parts.length - 1];
-              }
-            } catch (error: any) {
-              if (error.name !== 'AbortError') {
-                observer.error(error);
+                  buffer = parts[parts.length - 1];
+                }
+              } catch (error: any) {
+                if (error.name !== 'AbortError') {
+                  observer.error(error);
+                }
               }
-            }
-          };
+            };
 
-          processStream();
-        })
-        .catch((error: any) => {
-          if (error.name !== 'AbortError') {
-            observer.error(error);
-          }
-        });
+            processStream();
+          })
+          .catch((error: any) => {
+            if (error.name !== 'AbortError') {
+              observer.error(error);
+            }
+          });
+      };
+      connect();
 
       return () => {
         if (abortController) {
@@ -129,9 +164,9 @@ export class ServerService {
   }
 
   /**
-   * Parse Server-Sent Events format
+   * Parse Server-Sent Events format; returns false if a delta was lost and the stream has to be reopened
    */
-  private parseSSEEvent(eventString: string, observer: any): void {
+  private parseSSEEvent(eventString: string, observer: any, deltas: { [type: string]: SseDeltaState }): boolean {
     const lines = eventString.split('\n');
     const event: { [key: string]: string } = {};
 
@@ -147,13 +182,17 @@ export class ServerService {
 
     if (event['data'] && event['event']) {
       try {
-        observer.next({
-          type: event['event'],
-          data: JSON.parse(event['data'])
-        });
+        const type = event['event'];
+        deltas[type] = deltas[type] || new SseDeltaState();
+        const data = deltas[type].apply(JSON.parse(event['data']));
+        if (data !== null) {
+          observer.next({ type, data });
+        }
+        return !deltas[type].outOfSync;
       } catch (error) {
         console.error('Error parsing SSE event data:', error);
       }
     }
+    return true;
   }
 }
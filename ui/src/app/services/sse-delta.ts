@@ -0,0 +1,81 @@
+/**
+ * Client side of the delta-encoded SSE streams.
+ * The server sends either a keyframe with the full state or a delta against the previous version:
+ *   { version: 7, keyframe: true,  data: {...full state...} }
+ *   { version: 8, keyframe: false, baseVersion: 7, data: {...patch...} }
+ * Patches are shaped like JSON merge patch, but null is a value: fields removed from an object are listed in
+ * its "$removed" array. Objects merge recursively and keyed lists are patched per entry with
+ * { key, upsert, remove }. A delta that does not continue the local version is dropped and outOfSync is set;
+ * the caller reconnects, and the server starts every connection with a keyframe.
+ */
+export class SseDeltaState {
+  private version: number | null = null;
+  private state: any = null;
+  outOfSync = false;
+
+  /**
+   * Apply a frame and return the full state, or null if the frame had to be dropped
+   */
+  apply(frame: any): any | null {
+    if (frame.keyframe) {
+      this.version = frame.version;
+      this.state = frame.data;
+      this.outOfSync = false;
+      return this.state;
+    }
+    if (this.state === null || frame.baseVersion !== this.version) {
+      console.warn(`SSE delta gap (have ${this.version}, got base ${frame.baseVersion}), resyncing`);
+      this.state = null;
+      this.version = null;
+      this.outOfSync = true;
+      return null;
+    }
+    this.state = mergePatch(this.state, frame.data);
+    this.version = frame.version;
+    return this.state;
+  }
+}
+
+// Name of the array listing the fields removed from an object patch
+const REMOVED = '$removed';
+
+function mergePatch(target: any, patch: any): any {
+  if (Array.isArray(target) && isKeyedListPatch(patch)) {
+    return patchKeyedList(target, patch);
+  }
+  if (patch === null || typeof patch !== 'object' || Array.isArray(patch)) {
+    return patch;
+  }
+  const result: any = target !== null && typeof target === 'object' && !Array.isArray(target) ? { ...target } : {};
+  for (const name of Object.keys(patch)) {
+    if (name !== REMOVED) {
+      result[name] = mergePatch(result[name], patch[name]);
+    }
+  }
+  for (const name of patch[REMOVED] || []) {
+    delete result[name];
+  }
+  return result;
+}
+
+function isKeyedListPatch(patch: any): boolean {
+  return patch !== null && typeof patch === 'object' && typeof patch.key === 'string'
+    && Array.isArray(patch.upsert) && Array.isArray(patch.remove);
+}
+
+function patchKeyedList(target: any[], patch: { key: string, upsert: any[], remove: string[] }): any[] {
+  const removed = new Set(patch.remove);
+  const upserts = new Map(patch.upsert.map(entry => [String(entry[patch.key]), entry]));
+  const result = target
+    .filter(entry => !removed.has(String(entry[patch.key])))
+    .map(entry => {
+      const id = String(entry[patch.key]);
+      const updated = upserts.get(id);
+      if (updated !== undefined) {
+        upserts.delete(id);
+        return updated;
+      }
+      return entry;
+    });
+  return result.concat(Array.from(upserts.values()));
+}